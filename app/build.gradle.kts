@@ -8,6 +8,9 @@
 plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
+
+    // JMH benchmarks live in src/jmh/java and run with `./gradlew jmh`.
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -58,6 +61,47 @@ tasks.named<Test>("test") {
     useJUnitPlatform()
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // Machine-readable results, so runs can be diffed against each other.
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    // Narrow a run down with e.g. -PjmhIncludes=Buffer
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes = listOf(it) }
+}
+
 tasks.withType<JavaExec> {
     standardInput = System.`in`
-}
\ No newline at end of file
+}
+
+// Records the classes a short offline run loads into an AppCDS archive:
+//   ./gradlew cdsArchive [-PcdsArgs="selfplay 20000"]
+//   java -XX:SharedArchiveFile=app/build/cds/app.jsa -cp "$(cat app/build/cds/classpath.txt)" App <command>
+// JDK 17 only archives classes from jar files (a non-empty directory on the
+// classpath makes it refuse), so the training run uses the application jar
+// plus the dependency jars. Later runs must use that same classpath, which is
+// written to classpath.txt next to the archive.
+val cdsDir = layout.buildDirectory.dir("cds")
+tasks.register<JavaExec>("cdsArchive") {
+    group = "application"
+    description = "Builds an AppCDS archive of the classes used by a training run of App."
+    dependsOn(tasks.jar)
+    val trainingClasspath = files(tasks.jar) + configurations.runtimeClasspath.get()
+    classpath = trainingClasspath
+    mainClass = "App"
+    args = providers.gradleProperty("cdsArgs").getOrElse("selfplay 20000").split(" ")
+    val archiveFile = cdsDir.map { it.file("app.jsa").asFile }
+    val classpathFile = cdsDir.map { it.file("classpath.txt").asFile }
+    outputs.files(archiveFile, classpathFile)
+    doFirst {
+        archiveFile.get().parentFile.mkdirs()
+        archiveFile.get().delete() // the JVM will not overwrite a read-only archive
+        classpathFile.get().writeText(trainingClasspath.asPath)
+    }
+    jvmArgumentProviders.add(CommandLineArgumentProvider {
+        listOf("-XX:ArchiveClassesAtExit=" + archiveFile.get().absolutePath)
+    })
+}
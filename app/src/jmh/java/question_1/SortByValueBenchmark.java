@@ -0,0 +1,38 @@
+package question_1;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/// Sorting the shared result map by frequency, at the sizes the scrapers
+/// produce (11 crime features) up to a large subheading vocabulary.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class SortByValueBenchmark {
+
+    @Param({ "11", "1000", "100000" })
+    private int size;
+
+    private SearchEngineAnalyzer analyzer;
+    private ConcurrentHashMap<String, Integer> frequencies;
+
+    @Setup
+    public void setup() {
+        analyzer = new SearchEngineAnalyzer();
+        frequencies = new ConcurrentHashMap<>();
+
+        // Skewed counts with plenty of ties, like real heading frequencies
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < size; i++)
+            frequencies.put("heading " + i, 1 + (int) Math.abs(random.nextGaussian() * 20));
+    }
+
+    @Benchmark
+    public Map<String, Integer> sortByValue() {
+        return analyzer.sortByValue(frequencies);
+    }
+}
@@ -0,0 +1,81 @@
+package question_1.web_scraper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/// Keyword matching and subheading normalization over pages that are already
+/// parsed, so only the extractors' own work is measured (no network, no
+/// parsing).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class ExtractorBenchmark {
+
+    @Param({ "crime-reporting-paper.html", "news-article.html" })
+    private String fixture;
+
+    private Document doc;
+    private List<String> headings;
+    private ConcurrentHashMap<String, Integer> results;
+    private CrimeFeatureExtractor crimeExtractor;
+    private SubheadingExtractor subheadingExtractor;
+
+    @Setup
+    public void setup() {
+        doc = Jsoup.parse(readFixture(fixture), "https://example.org/");
+
+        headings = new ArrayList<>();
+        for (Element heading : doc.select("h2, h3, h4, .section-title, .heading"))
+            headings.add(heading.text());
+
+        results = new ConcurrentHashMap<>();
+        crimeExtractor = new CrimeFeatureExtractor(null, results);
+        subheadingExtractor = new SubheadingExtractor(null, results);
+    }
+
+    @Benchmark
+    public ConcurrentHashMap<String, Integer> crimeFeatures() {
+        results.clear();
+        crimeExtractor.saveResults(doc);
+        return results;
+    }
+
+    @Benchmark
+    public ConcurrentHashMap<String, Integer> subheadings() {
+        results.clear();
+        subheadingExtractor.saveResults(doc);
+        return results;
+    }
+
+    /// The regex-based normalization alone, without the jsoup selection.
+    @Benchmark
+    public void normalizeSubheadings(Blackhole blackhole) {
+        for (String heading : headings) {
+            if (subheadingExtractor.isValidSubheading(heading))
+                blackhole.consume(subheadingExtractor.normalizeSubheading(heading));
+        }
+    }
+
+    static String readFixture(String name) {
+        try (InputStream in = ExtractorBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Missing fixture: " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
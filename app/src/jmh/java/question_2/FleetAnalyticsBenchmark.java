@@ -0,0 +1,64 @@
+package question_2;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/// Fleet-wide aggregates on a random fleet spread over a 10000 x 10000 area.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class FleetAnalyticsBenchmark {
+
+    @Param({ "10000", "1000000" })
+    private int fleetSize;
+
+    private VehicleTracker tracker;
+    private FleetSnapshot before;
+    private FleetSnapshot after;
+    private List<Geofence> regions;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(7);
+        Map<String, Point> initial = new HashMap<>();
+        for (int i = 0; i < fleetSize; i++)
+            initial.put("V" + i, new Point(random.nextInt(10_000), random.nextInt(10_000)));
+        tracker = new VehicleTracker(initial);
+        before = tracker.snapshot();
+
+        for (int i = 0; i < fleetSize; i += 2)
+            tracker.setLocation("V" + i, random.nextInt(10_000), random.nextInt(10_000));
+        after = tracker.snapshot();
+
+        regions = List.of(
+                new RectangleFence("north", 0, 5_000, 9_999, 9_999),
+                new RectangleFence("centre", 2_500, 2_500, 7_499, 7_499),
+                new PolygonFence("diamond", new int[] { 5_000, 9_000, 5_000, 1_000 },
+                        new int[] { 1_000, 5_000, 9_000, 5_000 }));
+    }
+
+    @Benchmark
+    public FleetSnapshot snapshot() {
+        return tracker.snapshot();
+    }
+
+    @Benchmark
+    public int[][] heatmap() {
+        return FleetAnalytics.heatmap(after, 0, 0, 100, 100, 100);
+    }
+
+    @Benchmark
+    public int[] regionCounts() {
+        return FleetAnalytics.regionCounts(after, regions);
+    }
+
+    @Benchmark
+    public double averageDisplacement() {
+        return FleetAnalytics.averageDisplacement(before, after);
+    }
+}
@@ -0,0 +1,74 @@
+package question_2;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/// Concurrent reads and writes against one shared VehicleTracker. Each group
+/// runs readers and writers at the same time; the thread split sets the mix.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+public class VehicleTrackerBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    private int fleetSize;
+
+    private VehicleTracker tracker;
+    private String[] ids;
+
+    @Setup
+    public void setup() {
+        ids = new String[fleetSize];
+        Map<String, Point> initial = new HashMap<>();
+        for (int i = 0; i < fleetSize; i++) {
+            ids[i] = "V" + i;
+            initial.put(ids[i], new Point(i % 1000, i / 1000));
+        }
+        tracker = new VehicleTracker(initial);
+    }
+
+    // 3 readers : 1 writer
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(3)
+    public Point readHeavyGet() {
+        return tracker.getLocation(randomId());
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public void readHeavySet() {
+        move();
+    }
+
+    // 1 reader : 3 writers
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(1)
+    public Point writeHeavyGet() {
+        return tracker.getLocation(randomId());
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(3)
+    public void writeHeavySet() {
+        move();
+    }
+
+    private String randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(fleetSize)];
+    }
+
+    private void move() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        tracker.setLocation(ids[random.nextInt(fleetSize)], random.nextInt(1000), random.nextInt(1000));
+    }
+}
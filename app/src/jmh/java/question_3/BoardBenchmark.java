@@ -0,0 +1,71 @@
+package question_3;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+/// Move generation and makeMove: a whole first-pit game on the original
+/// array-based Board against the same game on the packed OwareState, plus the
+/// single-move costs the searches pay per node.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    // Games that cycle without a capture are cut off here
+    private static final int MAX_PLIES = 1000;
+
+    private final OwareState state = new OwareState();
+
+    // A mid-game position for the single-move benchmarks
+    private OwareState midGame;
+    private int midGameMove;
+
+    @Setup
+    public void setup() {
+        midGame = new OwareState(new int[] { 3, 0, 5, 2, 7, 1, 4, 4, 0, 6, 2, 3 }, 3, 8);
+        midGameMove = midGame.firstLegalMove(1);
+    }
+
+    @Benchmark
+    public int boardGame() {
+        Board board = new Board();
+        int player = 1;
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            int pit = board.chooseMove(player);
+            if (pit == -1)
+                break;
+            board.makeMove(player, pit);
+            if (board.isGameOver())
+                break;
+            player = 3 - player;
+        }
+        return player;
+    }
+
+    @Benchmark
+    public int owareStateGame() {
+        state.reset();
+        int player = 1;
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            int pit = state.firstLegalMove(player);
+            if (pit == -1 || state.play(player, pit))
+                break;
+            player = 3 - player;
+        }
+        return state.scoreDifference(1);
+    }
+
+    @Benchmark
+    public int legalMoves() {
+        return midGame.legalMoves(1) ^ midGame.legalMoves(2);
+    }
+
+    @Benchmark
+    public int makeAndRestore() {
+        long side1 = midGame.side1(), side2 = midGame.side2();
+        int captured = midGame.makeMove(1, midGameMove);
+        midGame.restore(side1, side2);
+        return captured;
+    }
+}
@@ -0,0 +1,93 @@
+package question_5;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Control;
+
+/// Handoff throughput of ProducerConsumer.Buffer between one producer and one
+/// consumer thread, per queue type, capacity and batch size. A batch size of
+/// 1 uses produce/consume; larger batches use produceAll/drainTo.
+///
+/// When JMH ends an iteration one side may be left waiting on a full or empty
+/// buffer forever. The wait strategy notices the iteration is over and
+/// interrupts its own thread, which makes Buffer give up the blocked call.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Group)
+public class BufferBenchmark {
+
+    @Param({ "spsc", "mpmc" })
+    private String queue;
+
+    // 1 is what Buffer() uses; it is also the case most likely to expose a
+    // queue that loses or spins on a value
+    @Param({ "1", "1024" })
+    private int capacity;
+
+    @Param({ "1", "64" })
+    private int batch;
+
+    private ProducerConsumer.Buffer buffer;
+
+    // Set by whichever side runs first; the same object for the whole group
+    private volatile Control control;
+
+    @Setup
+    public void setup() {
+        IntQueue ring = queue.equals("spsc") ? new SpscIntRingBuffer(capacity) : new MpmcIntRingBuffer(capacity);
+        buffer = new ProducerConsumer().new Buffer(ring, attempt -> {
+            Control current = control;
+            if (current != null && current.stopMeasurement)
+                Thread.currentThread().interrupt();
+            else
+                Thread.yield(); // the two sides may share a core
+        });
+        if (buffer.capacity() != capacity) {
+            throw new IllegalStateException(queue + " queue holds " + buffer.capacity() + ", not " + capacity);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Batch {
+        int[] values;
+
+        @Setup
+        public void setup(BufferBenchmark benchmark) {
+            values = new int[benchmark.batch];
+            for (int i = 0; i < values.length; i++)
+                values[i] = i;
+        }
+    }
+
+    /// Counts values rather than calls, so batch sizes are comparable.
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Handoffs {
+        public long values;
+    }
+
+    @Benchmark
+    @Group("handoff")
+    public void produce(Batch batch, Control control) {
+        this.control = control;
+        if (batch.values.length == 1)
+            buffer.produce(batch.values[0]);
+        else
+            buffer.produceAll(batch.values);
+        Thread.interrupted(); // clear a stop request from the wait strategy
+    }
+
+    @Benchmark
+    @Group("handoff")
+    public void consume(Batch batch, Handoffs handoffs, Control control) {
+        this.control = control;
+        if (batch.values.length == 1) {
+            buffer.consume();
+            handoffs.values++;
+        } else {
+            handoffs.values += buffer.drainTo(batch.values, batch.values.length);
+        }
+        Thread.interrupted();
+    }
+}
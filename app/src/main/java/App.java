@@ -1,47 +1,143 @@
-import java.util.Scanner;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
+/// Command-line launcher for every module of the assignment.
+///
+/// Usage: App [--timings] <command> [args...]
+///
+/// Modules are only referenced by class name, so a command loads nothing but
+/// the classes it actually runs: `selfplay` never touches jsoup or XChart.
+/// With --timings the launcher reports, on stderr, how long the JVM took to
+/// reach main, to load the module and to run its main method.
+public class App {
 
-import question_1.SearchEngineAnalyzer;
-import question_3.Board;
+    static final Map<String, Command> COMMANDS = new LinkedHashMap<>();
 
-public class App {
-    public static void main(String[] args) {
-        // System.out.println("JAVA IN CONCURRENCY ASSIGNMENT");
-        System.out.println("Select a question to run (1-5):");
-        System.out.println("JAVA IN CONCURRENCY ASSIGNMENT");
-        requestAndRunQuestion();
+    static {
+        add("scrape", "question_1.SearchEngineAnalyzer", "[crime|headings|all] [--offline file...]",
+                "search and scrape papers (question 1)");
+        add("tracker", "question_2.FleetTrackingDemo", "",
+                "fleet tracking with geofences (question 2)");
+        add("game", "question_3.Board", "[searchMs] [tablebase]",
+                "two player threads on one board (question 3)");
+        add("selfplay", "question_3.SelfPlaySimulator", "[games] [policy1] [policy2]",
+                "parallel self-play statistics");
+        add("server", "question_3.GameLoadGenerator", "[sessions] [seconds] [policy1] [policy2]",
+                "game server under generated load");
+        add("tablebase", "question_3.TablebaseGenerator", "[maxSeeds] [file]",
+                "build an endgame tablebase");
+        add("pc", "question_5.ProducerConsumer", "",
+                "producer/consumer demo (question 5)");
+        add("scale", "question_5.ProducerConsumer", "[producers] [consumers] [items] [options]",
+                "producer/consumer throughput and latency", "scale");
+        add("durable", "question_5.ProducerConsumer", "<dir>",
+                "producer/consumer over a memory-mapped queue", "durable");
+        add("bench", "org.openjdk.jmh.Main", "[jmh options]",
+                "JMH benchmarks (needs the jmh jar on the classpath)");
     }
 
-    public static void requestAndRunQuestion() {
-        Scanner scanner = new Scanner(System.in);
-        final int input = scanner.nextInt();
-        scanner.close();
+    public static void main(String[] args) throws Throwable {
+        long entered = System.nanoTime();
+        Instant enteredAt = Instant.now();
+
+        boolean timings = false;
+        int first = 0;
+        while (first < args.length && args[first].startsWith("--")) {
+            if (args[first].equals("--timings")) {
+                timings = true;
+            } else if (args[first].equals("--help")) {
+                printUsage();
+                return;
+            } else {
+                System.err.println("Unknown option: " + args[first]);
+                printUsage();
+                System.exit(2);
+            }
+            first++;
+        }
+
+        if (first == args.length) {
+            printUsage();
+            return;
+        }
 
-        switch (input) {
-            case 1:
-                runQuestion1();
-                break;
+        String name = args[first];
+        Command command = COMMANDS.get(name);
+        if (command == null) {
+            System.err.println("Unknown command: " + name);
+            printUsage();
+            System.exit(2);
+        }
 
-            default:
-                System.out.println("Question not found. Select from question 1-5");
+        String[] moduleArgs = new String[command.prefix.length + args.length - first - 1];
+        System.arraycopy(command.prefix, 0, moduleArgs, 0, command.prefix.length);
+        System.arraycopy(args, first + 1, moduleArgs, command.prefix.length, args.length - first - 1);
+
+        // Load phase: the module's classes are first touched here
+        long loadStart = System.nanoTime();
+        MethodHandle main;
+        try {
+            Class<?> module = Class.forName(command.className);
+            main = MethodHandles.publicLookup().findStatic(module, "main",
+                    MethodType.methodType(void.class, String[].class));
+        } catch (ClassNotFoundException e) {
+            System.err.println(command.className + " is not on the classpath"
+                    + (name.equals("bench") ? "; run ./gradlew jmh or the jmh jar instead" : ""));
+            System.exit(1);
+            return;
+        }
+        long loaded = System.nanoTime();
+
+        main.invokeExact(moduleArgs);
+        long finished = System.nanoTime();
+
+        if (timings) {
+            System.err.println();
+            System.err.println("--- timings (" + name + ") ---");
+            // Asked only now, so the management classes stay out of the measured phases
+            Instant jvmStart = Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime());
+            System.err.printf("jvm start -> launcher  %8.1f ms%n",
+                    Duration.between(jvmStart, enteredAt).toNanos() / 1e6);
+            System.err.printf("launcher              %8.1f ms%n", (loadStart - entered) / 1e6);
+            System.err.printf("load %-16s %8.1f ms%n", command.className.substring(
+                    command.className.lastIndexOf('.') + 1), (loaded - loadStart) / 1e6);
+            // Modules that start their own threads keep running after main returns
+            System.err.printf("run main              %8.1f ms%n", (finished - loaded) / 1e6);
         }
     }
 
-    /// Assignment 1
-    public static void runQuestion1() {
-        SearchEngineAnalyzer serAnalyzer = new SearchEngineAnalyzer();
-        serAnalyzer.analyzeCrimeReportingPapers();
-        serAnalyzer.analyzeDeepLearningPapers();
+    private static void add(String name, String className, String usage, String description,
+            String... prefix) {
+        COMMANDS.put(name, new Command(className, usage, description, prefix));
     }
-}
 
-class Test {
-    public static Document tryFetch() throws Exception {
-        Document doc = Jsoup.connect("https://html.duckduckgo.com/html/")
-                .data("q", "java gradle search")
-                .post();
-        return doc;
+    private static void printUsage() {
+        System.out.println("JAVA IN CONCURRENCY ASSIGNMENT");
+        System.out.println("Usage: App [--timings] <command> [args...]");
+        System.out.println();
+        for (Map.Entry<String, Command> entry : COMMANDS.entrySet())
+            System.out.printf("  %-10s %-42s %s%n", entry.getKey(), entry.getValue().usage,
+                    entry.getValue().description);
     }
-}
\ No newline at end of file
+
+    static final class Command {
+        final String className;
+        final String usage;
+        final String description;
+        final String[] prefix; // arguments put before the user's
+
+        Command(String className, String usage, String description, String[] prefix) {
+            this.className = className;
+            this.usage = usage;
+            this.description = description;
+            this.prefix = Arrays.copyOf(prefix, prefix.length);
+        }
+    }
+}
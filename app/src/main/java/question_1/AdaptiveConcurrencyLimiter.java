@@ -0,0 +1,202 @@
+package question_1;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/// Caps the number of requests in flight and adapts the cap to how the remote
+/// side responds (AIMD, in the spirit of Netflix's concurrency-limits).
+///
+/// Every completed request is a latency sample for the host it went to. The
+/// limiter keeps a baseline per host close to that host's fastest recent
+/// latency: it follows faster samples at once and slower ones only slowly.
+/// Comparing each sample with its own host's baseline keeps a mix of near and
+/// far hosts from reading as rising latency. While requests come back within
+/// TOLERANCE times their baseline and the limit is actually being used, the
+/// limit grows by one per limit's worth of samples (additive increase). A
+/// sample slower than that, or a request the server refused or that failed in
+/// transit, shrinks the limit by a factor (multiplicative decrease), at most
+/// once per baseline round trip of that host so a burst of slow responses
+/// does not collapse it to the floor. That once is counted per host as well,
+/// so a near host backing off does not mute a far host's slow responses for
+/// the far host's much longer round trip.
+///
+/// Usage:
+///
+///     AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire(host);
+///     try {
+///         fetch();
+///         permit.success();
+///     } catch (SocketTimeoutException e) {
+///         permit.dropped();
+///         throw e;
+///     } catch (IOException e) {
+///         permit.ignore();
+///         throw e;
+///     }
+///
+/// A permit that is never completed leaks a slot; use ignore() for outcomes
+/// that say nothing about load (a 404 or an unknown host, say).
+public class AdaptiveConcurrencyLimiter {
+    static final double TOLERANCE = 2.0;
+    static final double LATENCY_BACKOFF = 0.9;
+    static final double DROP_BACKOFF = 0.5;
+
+    // How quickly a baseline follows samples slower than itself
+    private static final double BASELINE_DRIFT = 0.01;
+
+    // Hosts whose state is remembered; the least recently seen is forgotten first
+    private static final int MAX_HOSTS = 1024;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    // All guarded by lock
+    private double limit;
+    private int inFlight;
+    private final Map<String, HostState> hosts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HostState> eldest) {
+            return size() > MAX_HOSTS;
+        }
+    };
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits: initial=" + initialLimit + " min=" + minLimit
+                    + " max=" + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    /// Waits until fewer requests than the current limit are in flight. For
+    /// callers that talk to a single host.
+    public Permit acquire() throws InterruptedException {
+        return acquire("");
+    }
+
+    /// Waits until fewer requests than the current limit are in flight; the
+    /// request's latency is judged against the given host's baseline.
+    public Permit acquire(String host) throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit)
+                available.await();
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return new Permit(host, System.nanoTime());
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /// The outcome of one request; complete it exactly once.
+    public final class Permit {
+        private final String host;
+        private final long start;
+        private boolean completed;
+
+        private Permit(String host, long start) {
+            this.host = host;
+            this.start = start;
+        }
+
+        /// The request completed; its latency counts as a sample.
+        public void success() {
+            complete(Outcome.SUCCESS);
+        }
+
+        /// The server refused the request or it failed in transit: back off.
+        public void dropped() {
+            complete(Outcome.DROPPED);
+        }
+
+        /// Frees the slot without drawing any conclusion from the request.
+        public void ignore() {
+            complete(Outcome.IGNORED);
+        }
+
+        private void complete(Outcome outcome) {
+            if (completed) {
+                throw new IllegalStateException("Permit already completed");
+            }
+            completed = true;
+            long now = System.nanoTime();
+            release(host, now - start, now, outcome);
+        }
+    }
+
+    enum Outcome {
+        SUCCESS, DROPPED, IGNORED
+    }
+
+    /// Frees a slot and feeds the sample into the limit.
+    void release(String host, long latencyNanos, long now, Outcome outcome) {
+        lock.lock();
+        try {
+            // Only grow a limit that is being used: at least half of it was in flight
+            boolean saturated = inFlight >= (int) limit / 2;
+            inFlight--;
+
+            double previous = limit;
+            if (outcome == Outcome.DROPPED) {
+                decrease(DROP_BACKOFF, now, hosts.computeIfAbsent(host, h -> new HostState()));
+            } else if (outcome == Outcome.SUCCESS) {
+                HostState state = hosts.computeIfAbsent(host, h -> new HostState());
+                if (state.baselineNanos == 0 || latencyNanos < state.baselineNanos)
+                    state.baselineNanos = latencyNanos;
+                else
+                    state.baselineNanos += (latencyNanos - state.baselineNanos) * BASELINE_DRIFT;
+
+                if (latencyNanos > state.baselineNanos * TOLERANCE)
+                    decrease(LATENCY_BACKOFF, now, state);
+                else if (saturated)
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+
+            // A grown limit may admit several waiting threads at once
+            if ((int) limit > (int) previous)
+                available.signalAll();
+            else
+                available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease(double factor, long now, HostState host) {
+        if (host.lastDecrease != 0 && now - host.lastDecrease < (long) host.baselineNanos)
+            return; // already backed off for this host's round trip
+        host.lastDecrease = now;
+        limit = Math.max(minLimit, limit * factor);
+    }
+
+    // What the limiter remembers about one host; guarded by lock
+    private static final class HostState {
+        double baselineNanos; // 0 until the first successful sample
+        long lastDecrease; // 0 until the first decrease
+    }
+}
@@ -1,17 +1,25 @@
 package question_1;
 
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.jsoup.Connection;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.*;
 import org.jsoup.select.Elements;
@@ -23,7 +31,50 @@ import com.google.gson.JsonParser;
 import question_1.web_scraper.*;
 
 public class SearchEngineAnalyzer {
-    private static final int THREAD_POOL_SIZE = 10;
+    /// Upper bound on concurrent fetches, and the size of the scraping pool.
+    /// How many of them are actually in flight is up to FETCH_LIMITER.
+    private static final int MAX_CONCURRENCY = 32;
+
+    /// Shared by every extractor so the whole fetch stage adapts as one.
+    private static final AdaptiveConcurrencyLimiter FETCH_LIMITER = new AdaptiveConcurrencyLimiter(4, 1,
+            MAX_CONCURRENCY);
+
+    /// Usage: SearchEngineAnalyzer [crime|headings|all] [--offline file.html...]
+    ///
+    /// With --offline the given HTML files are analyzed in place of search
+    /// results, so no network access is needed.
+    public static void main(String[] args) {
+        String mode = "all";
+        List<SearchEngineResult> offline = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--offline")) {
+                offline = new ArrayList<>();
+                for (i++; i < args.length; i++) {
+                    String uri = Paths.get(args[i]).toAbsolutePath().toUri().toString();
+                    offline.add(new SearchEngineResult(args[i], uri, ""));
+                }
+            } else {
+                mode = args[i];
+            }
+        }
+        if (!mode.equals("crime") && !mode.equals("headings") && !mode.equals("all")) {
+            System.err.println("Unknown mode: " + mode + " (expected crime, headings or all)");
+            return;
+        }
+
+        SearchEngineAnalyzer analyzer = new SearchEngineAnalyzer();
+        if (offline != null) {
+            if (!mode.equals("headings"))
+                analyzer.runScrapingConcurrentlyAndVisualize(offline, true);
+            if (!mode.equals("crime"))
+                analyzer.runScrapingConcurrentlyAndVisualize(offline, false);
+            return;
+        }
+        if (!mode.equals("headings"))
+            analyzer.analyzeCrimeReportingPapers();
+        if (!mode.equals("crime"))
+            analyzer.analyzeDeepLearningPapers();
+    }
 
     /// This stores the results from the search and extraction tasks in the ratio of
     /// the feature to frequency.
@@ -47,7 +98,7 @@ public class SearchEngineAnalyzer {
             sharedResults.clear(); // Clear previous results before starting new tasks
 
             // Create a fixed thread pool to run tasks concurrently
-            ExecutorService executor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+            ExecutorService executor = Executors.newFixedThreadPool(MAX_CONCURRENCY);
 
             for (SearchEngineResult result : results) {
                 // If isCrime is true, we run the CrimeFeatureExtractor; otherwise, we run the
@@ -62,17 +113,19 @@ public class SearchEngineAnalyzer {
             }
 
             executor.shutdown();
-            while (!executor.isTerminated()) {
-                // Wait for all tasks to finish
-            }
+            // Wait for all tasks to finish without taking a core from the parsers
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            System.out.println("Fetch concurrency limit settled at " + FETCH_LIMITER.getLimit());
 
             Map<String, Integer> sortedResults = sortByValue(sharedResults);
             String title = isCrime ? "Crime Reporting Features" : "Deep Learning Paper Subheadings";
             // Sort and display results in terminal
             displayResults(sortedResults, title);
 
-            // Visualize results using XChart
-            if (isCrime) {
+            // Visualize results using XChart (not possible without a display)
+            if (GraphicsEnvironment.isHeadless()) {
+                System.out.println("No display available, skipping chart");
+            } else if (isCrime) {
                 ResultVisualizer.visualizeCrimeFeatures(sortedResults);
             } else {
                 ResultVisualizer.visualizeSubheadings(sortedResults);
@@ -153,7 +206,7 @@ public class SearchEngineAnalyzer {
 
     // Sorts the map by value in descending order and returns a new LinkedHashMap to
     // maintain the sorted order.
-    private Map<String, Integer> sortByValue(ConcurrentHashMap<String, Integer> map) {
+    Map<String, Integer> sortByValue(ConcurrentHashMap<String, Integer> map) {
         // Convert to list for easy sorting
         List<Map.Entry<String, Integer>> list = new ArrayList<>(map.entrySet());
 
@@ -180,11 +233,67 @@ public class SearchEngineAnalyzer {
         }
     }
 
-    /// Extracts the HTML document from the given URL using Jsoup
+    /// Extracts the HTML document from the given URL using Jsoup. file: URLs
+    /// are read from disk.
     public static Document extractDocument(String url) throws Exception {
-        return Jsoup.connect(url)
-                .userAgent(
-                        "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
-                .get();
+        if (isLocal(url)) {
+            return Jsoup.parse(new File(URI.create(url)), "UTF-8");
+        }
+
+        Connection.Response response;
+        AdaptiveConcurrencyLimiter.Permit permit = FETCH_LIMITER.acquire(hostOf(url));
+        try {
+            response = Jsoup.connect(url)
+                    .userAgent(
+                            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0.0.0 Safari/537.36")
+                    .execute()
+                    .bufferUp(); // the whole body is part of the fetch
+            permit.success();
+        } catch (HttpStatusException e) {
+            // Only "slow down" and server errors say anything about load
+            if (e.getStatusCode() == 429 || e.getStatusCode() >= 500)
+                permit.dropped();
+            else
+                permit.ignore();
+            throw e;
+        } catch (IOException e) {
+            // An unknown host, a malformed URL or a PDF is not the server struggling
+            if (signalsOverload(e))
+                permit.dropped();
+            else
+                permit.ignore();
+            throw e;
+        } catch (RuntimeException e) {
+            permit.ignore();
+            throw e;
+        }
+
+        // Parse outside the limiter, so CPU time is not mistaken for remote latency
+        return response.parse();
+    }
+
+    /// True for failures that suggest the server or the path to it is
+    /// overloaded: timeouts and connections reset mid-request.
+    static boolean signalsOverload(IOException e) {
+        if (e instanceof SocketTimeoutException)
+            return true;
+        String message = e.getMessage();
+        return e instanceof SocketException && message != null && message.contains("reset");
+    }
+
+    /// The host a URL points at, which picks the latency baseline its fetches
+    /// are judged against; empty if the URL has none.
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? "" : host;
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /// True for pages read from disk, which need no rate limiting.
+    private static boolean isLocal(String url) {
+        return url.startsWith("file:");
     }
 }
\ No newline at end of file
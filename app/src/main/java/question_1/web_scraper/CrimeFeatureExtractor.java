@@ -35,9 +35,6 @@ public class CrimeFeatureExtractor implements Runnable {
     @Override
     public void run() {
         try {
-            // Add artificial delay to reduce rate-limiting issues
-            Thread.sleep((long) (Math.random() * 2000 + 1000));
-
             final Document doc = SearchEngineAnalyzer.extractDocument(url);
             saveResults(doc); // Save results after scraping
 
@@ -52,7 +49,7 @@ public class CrimeFeatureExtractor implements Runnable {
 
     /// It checks if each feature is in the extracted text and updates the shared
     /// map.
-    private void saveResults(Document doc) {
+    void saveResults(Document doc) {
         // Extract text from relevant sections
         String fullText = extractUsefulTexts(doc).toLowerCase();
 
@@ -21,8 +21,6 @@ public class SubheadingExtractor implements Runnable {
     @Override
     public void run() {
         try {
-            Thread.sleep((long) (Math.random() * 2000 + 1000));
-
             final Document doc = SearchEngineAnalyzer.extractDocument(url);
             saveResults(doc);
 
@@ -35,7 +33,7 @@ public class SubheadingExtractor implements Runnable {
         }
     }
 
-    private void saveResults(Document doc) {
+    void saveResults(Document doc) {
         Elements headings = doc.select("h2, h3, h4, .section-title, .heading");
 
         for (Element heading : headings) {
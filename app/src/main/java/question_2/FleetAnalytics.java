@@ -0,0 +1,103 @@
+package question_2;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/// Fleet-wide aggregates over a FleetSnapshot.
+///
+/// Every aggregate is a parallel stream over vehicle slots. The slot range
+/// splits evenly across the fork/join pool, each leaf accumulates into its
+/// own primitive array, and the leaves are summed pairwise; no Point or boxed
+/// count is created, whatever the size of the fleet.
+public final class FleetAnalytics {
+
+    private FleetAnalytics() {
+    }
+
+    /// Number of vehicles in each `cellSize` square of the `columns` x `rows`
+    /// grid whose corner is (`originX`, `originY`), indexed [row][column].
+    /// Vehicles outside the grid are not counted.
+    public static int[][] heatmap(FleetSnapshot snapshot, int originX, int originY, int cellSize,
+            int columns, int rows) {
+        if (cellSize <= 0 || columns <= 0 || rows <= 0 || (long) columns * rows > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid grid: " + columns + " x " + rows
+                    + " cells of " + cellSize);
+        }
+        int cells = columns * rows;
+
+        int[] counts = IntStream.range(0, snapshot.size()).parallel().collect(
+                () -> new int[cells],
+                (acc, slot) -> {
+                    long packed = snapshot.packed(slot);
+                    // floorDiv so vehicles just left of or below the origin stay out
+                    long column = Math.floorDiv((long) FleetSnapshot.unpackX(packed) - originX, cellSize);
+                    long row = Math.floorDiv((long) FleetSnapshot.unpackY(packed) - originY, cellSize);
+                    if (column >= 0 && column < columns && row >= 0 && row < rows)
+                        acc[(int) row * columns + (int) column]++;
+                },
+                FleetAnalytics::addInto);
+
+        int[][] grid = new int[rows][];
+        for (int row = 0; row < rows; row++) {
+            grid[row] = new int[columns];
+            System.arraycopy(counts, row * columns, grid[row], 0, columns);
+        }
+        return grid;
+    }
+
+    /// Number of vehicles inside each region, in the order given. Regions may
+    /// overlap; a vehicle counts once for every region it is in.
+    public static int[] regionCounts(FleetSnapshot snapshot, List<? extends Geofence> regions) {
+        Geofence[] fences = regions.toArray(new Geofence[0]);
+
+        return IntStream.range(0, snapshot.size()).parallel().collect(
+                () -> new int[fences.length],
+                (acc, slot) -> {
+                    long packed = snapshot.packed(slot);
+                    int x = FleetSnapshot.unpackX(packed);
+                    int y = FleetSnapshot.unpackY(packed);
+                    for (int i = 0; i < fences.length; i++) {
+                        if (fences[i].boundsContain(x, y) && fences[i].contains(x, y))
+                            acc[i]++;
+                    }
+                },
+                FleetAnalytics::addInto);
+    }
+
+    /// Mean straight-line distance vehicles moved between two snapshots of the
+    /// same tracker; 0 for an empty fleet.
+    public static double averageDisplacement(FleetSnapshot before, FleetSnapshot after) {
+        if (!before.sameFleetAs(after)) {
+            throw new IllegalArgumentException("Snapshots come from different trackers");
+        }
+        if (before.size() == 0)
+            return 0;
+
+        double total = IntStream.range(0, before.size()).parallel()
+                .mapToDouble(slot -> {
+                    long from = before.packed(slot);
+                    long to = after.packed(slot);
+                    if (from == to)
+                        return 0;
+                    double dx = (double) FleetSnapshot.unpackX(to) - FleetSnapshot.unpackX(from);
+                    double dy = (double) FleetSnapshot.unpackY(to) - FleetSnapshot.unpackY(from);
+                    return Math.sqrt(dx * dx + dy * dy);
+                })
+                .sum();
+        return total / before.size();
+    }
+
+    /// Average displacement per second of the interval between the snapshots.
+    public static double averageSpeed(FleetSnapshot before, FleetSnapshot after) {
+        double seconds = (after.getTakenAtNanos() - before.getTakenAtNanos()) / 1e9;
+        if (seconds <= 0) {
+            throw new IllegalArgumentException("Snapshots must be taken in order");
+        }
+        return averageDisplacement(before, after) / seconds;
+    }
+
+    private static void addInto(int[] target, int[] source) {
+        for (int i = 0; i < target.length; i++)
+            target[i] += source[i];
+    }
+}
@@ -0,0 +1,60 @@
+package question_2;
+
+/// Every vehicle's position at (about) one moment, as packed longs in the
+/// tracker's slot order: x in the high 32 bits, y in the low 32 bits.
+///
+/// Snapshots of the same tracker share slot order, so vehicle i in one
+/// snapshot is vehicle i in every other.
+public final class FleetSnapshot {
+    private final String[] ids;
+    private final long[] positions;
+    private final long takenAtNanos;
+
+    FleetSnapshot(String[] ids, long[] positions, long takenAtNanos) {
+        this.ids = ids;
+        this.positions = positions;
+        this.takenAtNanos = takenAtNanos;
+    }
+
+    static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    public String getId(int slot) {
+        return ids[slot];
+    }
+
+    public int getX(int slot) {
+        return unpackX(positions[slot]);
+    }
+
+    public int getY(int slot) {
+        return unpackY(positions[slot]);
+    }
+
+    /// System.nanoTime() when the copy was taken.
+    public long getTakenAtNanos() {
+        return takenAtNanos;
+    }
+
+    // Raw access for FleetAnalytics
+    long packed(int slot) {
+        return positions[slot];
+    }
+
+    boolean sameFleetAs(FleetSnapshot other) {
+        return ids == other.ids;
+    }
+}
@@ -15,6 +15,22 @@ public class FleetTrackingDemo {
 
         VehicleTracker tracker = new VehicleTracker(initialLocations);
 
+        // Report vehicles crossing into or out of a couple of zones
+        GeofenceEngine geofences = GeofenceEngine.attach(tracker, 4);
+        geofences.addFence(new RectangleFence("Depot", 0, 0, 3, 3));
+        geofences.addFence(new PolygonFence("Downtown", new int[] { 4, 9, 9, 6 }, new int[] { 4, 4, 9, 9 }));
+        geofences.addListener(new GeofenceListener() {
+            @Override
+            public void onEnter(String vehicleId, Geofence fence, Point location) {
+                System.out.println(vehicleId + " entered " + fence + " at " + location);
+            }
+
+            @Override
+            public void onExit(String vehicleId, Geofence fence, Point location) {
+                System.out.println(vehicleId + " left " + fence + " at " + location);
+            }
+        });
+
         Runnable gpsUpdater = () -> {
             Random random = new Random();
             while (true) {
@@ -35,6 +51,7 @@ public class FleetTrackingDemo {
 
         new Thread(gpsUpdater).start();
 
+        FleetSnapshot previous = tracker.snapshot();
         while (true) {
             System.out.println("Vehicle Locations: " + tracker.getLocations());
             try {
@@ -42,6 +59,9 @@ public class FleetTrackingDemo {
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
+            FleetSnapshot current = tracker.snapshot();
+            System.out.printf("Average speed: %.2f units/s%n", FleetAnalytics.averageSpeed(previous, current));
+            previous = current;
         }
     }
 }
\ No newline at end of file
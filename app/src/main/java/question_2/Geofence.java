@@ -0,0 +1,59 @@
+package question_2;
+
+/// A named zone on the tracker's integer grid. Every fence exposes an
+/// inclusive bounding box so the GeofenceEngine can index it spatially and
+/// only run the exact containment test on fences near a vehicle.
+public abstract class Geofence {
+    private final String id;
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+
+    protected Geofence(String id, int minX, int minY, int maxX, int maxY) {
+        if (id == null) {
+            throw new IllegalArgumentException("Geofence id must not be null");
+        }
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("Invalid bounds for geofence: " + id);
+        }
+        this.id = id;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    /// Cheap pre-check against the bounding box.
+    public final boolean boundsContain(int x, int y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /// Exact containment test for the shape.
+    public abstract boolean contains(int x, int y);
+
+    @Override
+    public String toString() {
+        return id;
+    }
+}
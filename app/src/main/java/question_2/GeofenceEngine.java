@@ -0,0 +1,258 @@
+package question_2;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/// Turns location updates from a VehicleTracker into geofence enter and exit
+/// events without scanning every fence on every update.
+///
+/// Fences are indexed in a uniform grid: each cell keeps the fences whose
+/// bounding box overlaps it. For an update we only test the fences listed in
+/// the vehicle's new cell, plus the fences the vehicle was already inside
+/// (which are by definition the ones near its old cell). A fence that would
+/// span more than MAX_CELLS_PER_FENCE cells is kept in a short oversized list
+/// instead, which every update tests; otherwise one huge fence could fill
+/// the grid with millions of cells. The per-vehicle membership is swapped
+/// atomically, so concurrent updates of different vehicles never contend on
+/// a shared lock.
+///
+/// Tracker listeners run after the location is stored, so two racing updates
+/// of one vehicle can reach the engine in either order. An attached engine
+/// therefore evaluates the position the tracker holds when the membership is
+/// swapped, not the one in the notification: whichever evaluation runs last
+/// sees the last stored position.
+public class GeofenceEngine implements LocationListener {
+    static final int MAX_CELLS_PER_FENCE = 4096;
+
+    private static final Geofence[] NONE = new Geofence[0];
+
+    private final int cellSize;
+
+    // Where positions are re-read from; null for an engine fed directly
+    private final VehicleTracker tracker;
+
+    /// Grid cell (packed x/y) to the fences overlapping it. Arrays are replaced,
+    /// never mutated, so readers can iterate them without locking.
+    private final ConcurrentHashMap<Long, Geofence[]> cells = new ConcurrentHashMap<>();
+
+    /// Fences too large for the grid, tested on every update. Replaced, never
+    /// mutated, like the cell arrays.
+    private final AtomicReference<Geofence[]> oversized = new AtomicReference<>(NONE);
+
+    private final ConcurrentHashMap<String, Geofence> fences = new ConcurrentHashMap<>();
+
+    /// The fences each vehicle is currently inside.
+    private final ConcurrentHashMap<String, Geofence[]> memberships = new ConcurrentHashMap<>();
+
+    private final List<GeofenceListener> listeners = new CopyOnWriteArrayList<>();
+
+    public GeofenceEngine(int cellSize) {
+        this(cellSize, null);
+    }
+
+    private GeofenceEngine(int cellSize, VehicleTracker tracker) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.tracker = tracker;
+    }
+
+    /// Creates an engine and subscribes it to the tracker. Vehicles that start
+    /// inside a fence are only reported once they move.
+    public static GeofenceEngine attach(VehicleTracker tracker, int cellSize) {
+        GeofenceEngine engine = new GeofenceEngine(cellSize, tracker);
+        tracker.addLocationListener(engine);
+        return engine;
+    }
+
+    public void addListener(GeofenceListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(GeofenceListener listener) {
+        listeners.remove(listener);
+    }
+
+    /// Registers a fence in every grid cell its bounding box overlaps, or in
+    /// the oversized list if that is too many cells.
+    public void addFence(Geofence fence) {
+        if (fences.putIfAbsent(fence.getId(), fence) != null) {
+            throw new IllegalArgumentException("Duplicate geofence id: " + fence.getId());
+        }
+        if (isOversized(fence)) {
+            oversized.updateAndGet(current -> concat(current, new Geofence[] { fence }));
+            return;
+        }
+        forEachCell(fence, key -> cells.merge(key, new Geofence[] { fence }, GeofenceEngine::concat));
+    }
+
+    /// Unregisters a fence. Vehicles inside it silently drop the membership on
+    /// their next update; no exit event is produced.
+    public void removeFence(String id) {
+        Geofence fence = fences.remove(id);
+        if (fence == null) {
+            return;
+        }
+        if (isOversized(fence)) {
+            oversized.updateAndGet(current -> without(current, fence));
+            return;
+        }
+        forEachCell(fence, key -> cells.computeIfPresent(key, (k, current) -> {
+            Geofence[] remaining = without(current, fence);
+            return remaining.length == 0 ? null : remaining;
+        }));
+    }
+
+    public int getFenceCount() {
+        return fences.size();
+    }
+
+    /// Returns a copy of the fences the vehicle is currently inside.
+    public Geofence[] getFencesContaining(String vehicleId) {
+        Geofence[] current = memberships.get(vehicleId);
+        return current == null ? NONE : current.clone();
+    }
+
+    @Override
+    public void onLocationChanged(String id, Point previous, Point current) {
+        Geofence[][] transition = new Geofence[2][];
+        Point[] evaluated = new Point[1];
+
+        memberships.compute(id, (key, before) -> {
+            if (before == null)
+                before = NONE;
+            // Read under the membership lock, so evaluations of one vehicle
+            // never go back to a position older than the last one used
+            Point position = tracker == null ? current : tracker.getLocation(id);
+            Geofence[] after = evaluate(before, position.getX(), position.getY());
+            transition[0] = before;
+            transition[1] = after;
+            evaluated[0] = position;
+            return after.length == 0 ? null : after;
+        });
+
+        // Notify outside of compute() so listeners never run under the map's bin lock
+        Geofence[] before = transition[0];
+        Geofence[] after = transition[1];
+        Point location = evaluated[0];
+        if (listeners.isEmpty() || (before.length == 0 && after.length == 0)) {
+            return;
+        }
+        for (Geofence fence : before) {
+            if (!contains(after, fence) && fences.get(fence.getId()) == fence) {
+                for (GeofenceListener listener : listeners)
+                    listener.onExit(id, fence, location);
+            }
+        }
+        for (Geofence fence : after) {
+            if (!contains(before, fence)) {
+                for (GeofenceListener listener : listeners)
+                    listener.onEnter(id, fence, location);
+            }
+        }
+    }
+
+    /// Computes the new membership for a vehicle at (x, y) given the old one.
+    private Geofence[] evaluate(Geofence[] before, int x, int y) {
+        Geofence[] nearby = cells.getOrDefault(cellKey(cellOf(x), cellOf(y)), NONE);
+
+        Geofence[] after = NONE;
+        int size = 0;
+
+        // Fences we were inside: still inside? (only these can produce exits)
+        for (Geofence fence : before) {
+            if (fences.get(fence.getId()) == fence && fence.contains(x, y)) {
+                after = append(after, size++, fence);
+            }
+        }
+
+        // Fences around the new cell, and the ones too big for the grid: newly
+        // inside? (only these can produce enters)
+        for (Geofence fence : nearby) {
+            if (!contains(before, fence) && fence.contains(x, y)) {
+                after = append(after, size++, fence);
+            }
+        }
+        for (Geofence fence : oversized.get()) {
+            if (!contains(before, fence) && fence.contains(x, y)) {
+                after = append(after, size++, fence);
+            }
+        }
+
+        if (size == before.length && sameMembers(before, after, size)) {
+            return before; // nothing changed, keep the existing array
+        }
+        return size == after.length ? after : Arrays.copyOf(after, size);
+    }
+
+    private boolean isOversized(Geofence fence) {
+        long columns = (long) cellOf(fence.getMaxX()) - cellOf(fence.getMinX()) + 1;
+        long rows = (long) cellOf(fence.getMaxY()) - cellOf(fence.getMinY()) + 1;
+        return columns * rows > MAX_CELLS_PER_FENCE;
+    }
+
+    private void forEachCell(Geofence fence, LongConsumer action) {
+        int fromX = cellOf(fence.getMinX()), toX = cellOf(fence.getMaxX());
+        int fromY = cellOf(fence.getMinY()), toY = cellOf(fence.getMaxY());
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cy = fromY; cy <= toY; cy++) {
+                action.accept(cellKey(cx, cy));
+            }
+        }
+    }
+
+    private int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static Geofence[] append(Geofence[] array, int size, Geofence fence) {
+        if (size == array.length) {
+            array = Arrays.copyOf(array, Math.max(4, size * 2));
+        }
+        array[size] = fence;
+        return array;
+    }
+
+    private static boolean sameMembers(Geofence[] before, Geofence[] after, int size) {
+        // Survivors keep their relative order, so equal sizes with no new entries
+        // means an element-wise match.
+        for (int i = 0; i < size; i++) {
+            if (before[i] != after[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean contains(Geofence[] array, Geofence fence) {
+        for (Geofence candidate : array) {
+            if (candidate == fence)
+                return true;
+        }
+        return false;
+    }
+
+    private static Geofence[] concat(Geofence[] a, Geofence[] b) {
+        Geofence[] result = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private static Geofence[] without(Geofence[] array, Geofence fence) {
+        Geofence[] result = new Geofence[array.length];
+        int size = 0;
+        for (Geofence candidate : array) {
+            if (candidate != fence)
+                result[size++] = candidate;
+        }
+        return Arrays.copyOf(result, size);
+    }
+}
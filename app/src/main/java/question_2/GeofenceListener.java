@@ -0,0 +1,8 @@
+package question_2;
+
+/// Receives the enter and exit transitions produced by a GeofenceEngine.
+public interface GeofenceListener {
+    void onEnter(String vehicleId, Geofence fence, Point location);
+
+    void onExit(String vehicleId, Geofence fence, Point location);
+}
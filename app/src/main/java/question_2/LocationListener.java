@@ -0,0 +1,11 @@
+package question_2;
+
+/// Notified by VehicleTracker after a vehicle's location has been replaced.
+/// Callbacks run on the thread that called setLocation, so they should be
+/// short. They run after the update is stored and outside any lock, so two
+/// racing updates of the same vehicle may be delivered in either order; a
+/// listener that needs the latest position should read it back from the
+/// tracker.
+public interface LocationListener {
+    void onLocationChanged(String id, Point previous, Point current);
+}
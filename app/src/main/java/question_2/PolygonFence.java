@@ -0,0 +1,71 @@
+package question_2;
+
+/// A simple polygon given by its vertices in order (clockwise or
+/// counter-clockwise). Points on an edge count as inside.
+public class PolygonFence extends Geofence {
+    private final int[] xs;
+    private final int[] ys;
+
+    public PolygonFence(String id, int[] xs, int[] ys) {
+        // Checked before the bounds, which would be nonsense without vertices
+        super(id, min(checkVertices(id, xs, ys)), min(ys), max(xs), max(ys));
+        this.xs = xs.clone();
+        this.ys = ys.clone();
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        if (!boundsContain(x, y)) {
+            return false;
+        }
+
+        // Crossing-number test, with an explicit check for points on an edge
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            long xi = xs[i], yi = ys[i], xj = xs[j], yj = ys[j];
+
+            if (onSegment(xi, yi, xj, yj, x, y)) {
+                return true;
+            }
+
+            if ((yi > y) != (yj > y)) {
+                // x coordinate of the edge at height y, compared without division
+                long lhs = (x - xi) * (yj - yi);
+                long rhs = (xj - xi) * (y - yi);
+                if ((yj > yi) ? lhs < rhs : lhs > rhs) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    private static boolean onSegment(long x1, long y1, long x2, long y2, long x, long y) {
+        long cross = (x2 - x1) * (y - y1) - (y2 - y1) * (x - x1);
+        return cross == 0
+                && x >= Math.min(x1, x2) && x <= Math.max(x1, x2)
+                && y >= Math.min(y1, y2) && y <= Math.max(y1, y2);
+    }
+
+    // Returns xs, so it can run inside the call to super
+    private static int[] checkVertices(String id, int[] xs, int[] ys) {
+        if (xs.length != ys.length || xs.length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices: " + id);
+        }
+        return xs;
+    }
+
+    private static int min(int[] values) {
+        int result = Integer.MAX_VALUE;
+        for (int v : values)
+            result = Math.min(result, v);
+        return result;
+    }
+
+    private static int max(int[] values) {
+        int result = Integer.MIN_VALUE;
+        for (int v : values)
+            result = Math.max(result, v);
+        return result;
+    }
+}
@@ -0,0 +1,15 @@
+package question_2;
+
+/// An axis-aligned rectangle; both corners are inside the fence.
+public class RectangleFence extends Geofence {
+
+    public RectangleFence(String id, int minX, int minY, int maxX, int maxY) {
+        super(id, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        // For a rectangle the bounding box is the shape itself
+        return boundsContain(x, y);
+    }
+}
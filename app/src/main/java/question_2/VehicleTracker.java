@@ -1,15 +1,37 @@
 package question_2;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class VehicleTracker {
 
     private final ConcurrentHashMap<String, Point> locations;
 
+    // The fleet is fixed at construction, so every vehicle gets a dense slot.
+    // positions mirrors locations as packed x/y longs for fleet-wide analytics.
+    private final String[] ids;
+    private final Map<String, Integer> slots;
+    private final AtomicLongArray positions;
+
+    // Listeners are rarely added but read on every update
+    private final List<LocationListener> listeners = new CopyOnWriteArrayList<>();
+
     public VehicleTracker(Map<String, Point> initialLocations) {
         this.locations = new ConcurrentHashMap<>(initialLocations);
+
+        this.ids = locations.keySet().toArray(new String[0]);
+        this.slots = new HashMap<>();
+        this.positions = new AtomicLongArray(ids.length);
+        for (int slot = 0; slot < ids.length; slot++) {
+            Point point = locations.get(ids[slot]);
+            slots.put(ids[slot], slot);
+            positions.set(slot, FleetSnapshot.pack(point.getX(), point.getY()));
+        }
     }
 
     // Returns an unmodifiable view of all vehicle locations
@@ -24,9 +46,48 @@ public class VehicleTracker {
 
     // Updates the location of a vehicle
     public void setLocation(String id, int x, int y) {
-        if (!locations.containsKey(id)) {
+        Integer slot = slots.get(id);
+        if (slot == null) {
             throw new IllegalArgumentException("Invalid vehicle name: " + id);
         }
-        locations.put(id, new Point(x, y));
+        Point current = new Point(x, y);
+        long packed = FleetSnapshot.pack(x, y);
+        // Both stores happen under the map's lock for this vehicle, so racing
+        // updates leave the map and the packed array agreeing on the winner
+        Point[] previousHolder = new Point[1];
+        locations.compute(id, (key, old) -> {
+            previousHolder[0] = old;
+            positions.set(slot, packed);
+            return current;
+        });
+        Point previous = previousHolder[0];
+
+        for (LocationListener listener : listeners) {
+            listener.onLocationChanged(id, previous, current);
+        }
+    }
+
+    // Number of vehicles in the fleet
+    public int size() {
+        return ids.length;
+    }
+
+    // Copies every vehicle's position into a flat array, without creating Points.
+    // Each vehicle's x and y are consistent; the fleet as a whole is read over
+    // the duration of one array copy, not at a single instant.
+    public FleetSnapshot snapshot() {
+        long[] copy = new long[ids.length];
+        for (int slot = 0; slot < copy.length; slot++)
+            copy[slot] = positions.get(slot);
+        return new FleetSnapshot(ids, copy, System.nanoTime());
+    }
+
+    // Registers a callback that runs after every successful setLocation
+    public void addLocationListener(LocationListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeLocationListener(LocationListener listener) {
+        listeners.remove(listener);
     }
-}
\ No newline at end of file
+}
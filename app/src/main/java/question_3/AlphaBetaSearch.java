@@ -0,0 +1,296 @@
+package question_3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/// Iterative-deepening alpha-beta (negamax) search over OwareState.
+///
+/// Every iteration searches the previous best root move first on the calling
+/// thread's task, then forks the remaining root moves into the fork/join pool
+/// with the bound found so far; siblings that finish raise the shared bound,
+/// and the ones still running re-read it before each reply to their root move.
+/// All workers share one lock-free transposition table keyed by the
+/// position's Zobrist hash. Positions are explored with make/unmake on a
+/// per-task OwareState, so the search itself does not allocate per node.
+///
+/// Values are the mover's final score minus the opponent's, as far as the
+/// search can see. With an EndgameTablebase, any position it covers is an
+/// exact leaf.
+public class AlphaBetaSearch implements MovePolicy {
+    private static final int INFINITY = 1000;
+    private static final int DEFAULT_MAX_DEPTH = 64;
+    private static final int DEFAULT_TABLE_SIZE_LOG2 = 20;
+
+    // How many nodes a worker visits between clock checks
+    private static final int CLOCK_CHECK_MASK = 1023;
+
+    private final long timeBudgetNanos;
+    private final int maxDepth;
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final EndgameTablebase tablebase; // may be null
+
+    // Statistics of the most recent chooseMove call, for reporting only
+    private volatile int lastDepth;
+    private volatile int lastValue;
+
+    /// Searches for at most `timeBudgetMillis` per move on the common pool.
+    public AlphaBetaSearch(long timeBudgetMillis) {
+        this(timeBudgetMillis, DEFAULT_MAX_DEPTH, DEFAULT_TABLE_SIZE_LOG2, ForkJoinPool.commonPool());
+    }
+
+    /// Searches on the common pool, scoring positions the tablebase covers exactly.
+    public AlphaBetaSearch(long timeBudgetMillis, EndgameTablebase tablebase) {
+        this(timeBudgetMillis, DEFAULT_MAX_DEPTH, DEFAULT_TABLE_SIZE_LOG2, ForkJoinPool.commonPool(), tablebase);
+    }
+
+    public AlphaBetaSearch(long timeBudgetMillis, int maxDepth, int tableSizeLog2, ForkJoinPool pool) {
+        this(timeBudgetMillis, maxDepth, tableSizeLog2, pool, null);
+    }
+
+    public AlphaBetaSearch(long timeBudgetMillis, int maxDepth, int tableSizeLog2, ForkJoinPool pool,
+            EndgameTablebase tablebase) {
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive: " + timeBudgetMillis);
+        }
+        if (maxDepth < 1 || maxDepth > 255) {
+            throw new IllegalArgumentException("Max depth must be between 1 and 255: " + maxDepth);
+        }
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.maxDepth = maxDepth;
+        this.pool = pool;
+        this.table = new TranspositionTable(tableSizeLog2);
+        this.tablebase = tablebase;
+    }
+
+    @Override
+    public int chooseMove(OwareState state, int player) {
+        int moves = state.legalMoves(player);
+        if (Integer.bitCount(moves) <= 1) {
+            return moves == 0 ? -1 : Integer.numberOfTrailingZeros(moves);
+        }
+
+        Search search = new Search(state, player, System.nanoTime() + timeBudgetNanos);
+        int bestMove = Integer.numberOfTrailingZeros(moves);
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            search.start(depth, bestMove);
+            pool.invoke(search);
+            // An interrupted iteration is discarded; the previous one stands
+            if (search.stopped)
+                break;
+            bestMove = search.bestMove;
+            lastDepth = depth;
+            lastValue = search.bestValue;
+        }
+        return bestMove;
+    }
+
+    /// Deepest fully completed iteration of the last search.
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    /// Value of the move returned by the last search, from the mover's side.
+    public int getLastValue() {
+        return lastValue;
+    }
+
+    /// Forgets everything learned in previous searches.
+    public void clearTable() {
+        table.clear();
+    }
+
+    /// One iteration at the root; reused across iterations of a single move.
+    private final class Search extends RecursiveAction {
+        private final OwareState root;
+        private final int player;
+        private final long deadline;
+
+        volatile boolean stopped;
+        private int depth;
+        private int firstMove;
+        int bestMove;
+        int bestValue;
+
+        Search(OwareState root, int player, long deadline) {
+            this.root = new OwareState(root);
+            this.player = player;
+            this.deadline = deadline;
+        }
+
+        void start(int depth, int firstMove) {
+            this.depth = depth;
+            this.firstMove = firstMove;
+            reinitialize();
+        }
+
+        @Override
+        protected void compute() {
+            // Principal move first, alone, to establish a bound for the siblings
+            Worker principal = new Worker(this, root, null);
+            int value = principal.searchRootMove(player, firstMove, depth, -INFINITY);
+            AtomicInteger alpha = new AtomicInteger(value);
+
+            List<RootMove> siblings = new ArrayList<>();
+            int moves = root.legalMoves(player) & ~(1 << firstMove);
+            while (moves != 0) {
+                int pit = Integer.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                siblings.add(new RootMove(this, pit, alpha));
+            }
+            invokeAll(siblings);
+
+            int best = firstMove;
+            int bestSoFar = value;
+            for (RootMove sibling : siblings) {
+                if (sibling.value > bestSoFar) {
+                    bestSoFar = sibling.value;
+                    best = sibling.pit;
+                }
+            }
+            bestMove = best;
+            bestValue = bestSoFar;
+        }
+    }
+
+    private final class RootMove extends RecursiveAction {
+        private final Search search;
+        private final int pit;
+        private final AtomicInteger alpha;
+        int value = -INFINITY;
+
+        RootMove(Search search, int pit, AtomicInteger alpha) {
+            this.search = search;
+            this.pit = pit;
+            this.alpha = alpha;
+        }
+
+        @Override
+        protected void compute() {
+            Worker worker = new Worker(search, search.root, alpha);
+            int result = worker.searchRootMove(search.player, pit, search.depth, alpha.get());
+            // The bound may have risen during the search; anything at or below
+            // it is only an upper bound, and no better than a finished sibling
+            if (result > alpha.get()) {
+                value = result;
+                alpha.accumulateAndGet(result, Math::max);
+            }
+        }
+    }
+
+    /// Negamax with a private copy of the position.
+    private final class Worker {
+        private final Search search;
+        private final OwareState state;
+        private final AtomicInteger rootAlpha; // null for the principal move
+        private int nodes;
+        private int height; // moves played below the root
+
+        Worker(Search search, OwareState root, AtomicInteger rootAlpha) {
+            this.search = search;
+            this.state = new OwareState(root);
+            this.rootAlpha = rootAlpha;
+        }
+
+        int searchRootMove(int player, int pit, int depth, int alpha) {
+            long side1 = state.side1(), side2 = state.side2();
+            int value = child(player, pit, depth, alpha, INFINITY);
+            state.restore(side1, side2);
+            return value;
+        }
+
+        private int negamax(int player, int depth, int alpha, int beta) {
+            if ((++nodes & CLOCK_CHECK_MASK) == 0 && System.nanoTime() - search.deadline > 0) {
+                search.stopped = true;
+            }
+            if (search.stopped)
+                return 0;
+
+            if (tablebase != null && tablebase.covers(state)) {
+                return tablebase.exactResult(state, player);
+            }
+
+            int moves = state.legalMoves(player);
+            if (depth == 0 || moves == 0) {
+                // Horizon, or no move available (Board ends the game as it stands)
+                return state.scoreDifference(player);
+            }
+
+            long hash = state.hash(player);
+            long entry = table.probe(hash);
+            int hashMove = -1;
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (TranspositionTable.depth(entry) >= depth) {
+                    int value = TranspositionTable.value(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.EXACT
+                            || (bound == TranspositionTable.LOWER && value >= beta)
+                            || (bound == TranspositionTable.UPPER && value <= alpha)) {
+                        return value;
+                    }
+                }
+            }
+
+            int originalAlpha = alpha;
+            int best = -INFINITY;
+            int bestMove = -1;
+            long side1 = state.side1(), side2 = state.side2();
+
+            // Try the move the table remembers before the rest
+            beta = tightenBeta(beta);
+            if (hashMove >= 0 && (moves & (1 << hashMove)) != 0) {
+                moves &= ~(1 << hashMove);
+                best = child(player, hashMove, depth, alpha, beta);
+                bestMove = hashMove;
+                state.restore(side1, side2);
+                if (best > alpha)
+                    alpha = best;
+            }
+
+            while (moves != 0 && alpha < (beta = tightenBeta(beta))) {
+                int pit = Integer.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+
+                int value = child(player, pit, depth, alpha, beta);
+                state.restore(side1, side2);
+
+                if (value > best) {
+                    best = value;
+                    bestMove = pit;
+                    if (value > alpha)
+                        alpha = value;
+                }
+            }
+
+            if (!search.stopped) {
+                int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                        : best >= beta ? TranspositionTable.LOWER
+                                : TranspositionTable.EXACT;
+                table.store(hash, best, depth, bound, bestMove);
+            }
+            return best;
+        }
+
+        // At the reply to a root move, a sibling that finished since may have
+        // raised the root bound: a reply refuting it now cuts off sooner
+        private int tightenBeta(int beta) {
+            return height == 1 && rootAlpha != null ? Math.min(beta, -rootAlpha.get()) : beta;
+        }
+
+        // Plays `pit` and scores the result; the caller restores the position
+        private int child(int player, int pit, int depth, int alpha, int beta) {
+            if (state.play(player, pit)) {
+                return state.scoreDifference(player); // game over, exact
+            }
+            height++;
+            int value = -negamax(3 - player, depth - 1, -beta, -alpha);
+            height--;
+            return value;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package question_3;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 // represents the shared game board
 public class Board {
 
@@ -7,8 +10,24 @@ public class Board {
 
         Board board = new Board(); // create shared board
 
+        // optional second argument: endgame tablebase file for exact endings
+        EndgameTablebase tablebase = null;
+        if (args.length > 1) {
+            try {
+                tablebase = EndgameTablebase.open(Paths.get(args[1]));
+                board.setTablebase(tablebase);
+            } catch (IOException e) {
+                System.err.println("Could not open tablebase: " + e.getMessage());
+            }
+        }
+
+        // optional first argument: let player 1 search for this many ms per move
+        MovePolicy policy1 = null;
+        if (args.length > 0)
+            policy1 = new AlphaBetaSearch(Long.parseLong(args[0]), tablebase);
+
         // create two player threads
-        Thread player1 = new Thread(new Player(board, 1));
+        Thread player1 = new Thread(new Player(board, 1, policy1));
         Thread player2 = new Thread(new Player(board, 2));
 
         // start both threads
@@ -23,6 +42,8 @@ public class Board {
     private int currentPlayer = 1; // track whose turn it is
     private boolean gameOver = false; // track game state
 
+    private EndgameTablebase tablebase; // exact endgame moves, if loaded
+
     public Board() {
         for (int i = 0; i < 12; i++) {
             pits[i] = 4;
@@ -30,6 +51,11 @@ public class Board {
     }
 
     public synchronized void playTurn(int player) {
+        playTurn(player, null);
+    }
+
+    // same as playTurn(player), but lets a policy pick the pit
+    public synchronized void playTurn(int player, MovePolicy policy) {
 
         // if not your turn, wait
         while (player != currentPlayer && !gameOver) {
@@ -44,8 +70,8 @@ public class Board {
         if (gameOver)
             return;
 
-        // choose first valid move
-        int pit = chooseMove(player);
+        // choose first valid move, unless the player brought a policy
+        int pit = (policy == null) ? chooseMove(player) : chooseMove(player, policy);
 
         // if no move available, end game
         if (pit == -1) {
@@ -74,8 +100,20 @@ public class Board {
         notifyAll(); // wake waiting thread
     }
 
+    // use a tablebase for positions it covers (null to stop)
+    public synchronized void setTablebase(EndgameTablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
     // choose first non-empty pit from player's side
-    private int chooseMove(int player) {
+    int chooseMove(int player) {
+
+        // few seeds left: play the exact best move instead
+        if (tablebase != null) {
+            int pit = tablebase.bestMove(new OwareState(pits, score1, score2), player);
+            if (pit != -1)
+                return pit;
+        }
 
         int start = (player == 1) ? 0 : 6;
         int end = (player == 1) ? 5 : 11;
@@ -88,7 +126,20 @@ public class Board {
         return -1; // no valid move
     }
 
-    private void makeMove(int player, int pit) {
+    // ask a policy for a move on a packed copy of this board
+    private int chooseMove(int player, MovePolicy policy) {
+
+        int pit = policy.chooseMove(new OwareState(pits, score1, score2), player);
+
+        // never trust a policy with an illegal pit
+        int start = (player == 1) ? 0 : 6;
+        if (pit < start || pit > start + 5 || pits[pit] == 0)
+            return chooseMove(player);
+
+        return pit;
+    }
+
+    void makeMove(int player, int pit) {
 
         int seeds = pits[pit];
         pits[pit] = 0; // empty selected pit
@@ -129,7 +180,7 @@ public class Board {
     }
 
     // game ends if one side is empty
-    private boolean isGameOver() {
+    boolean isGameOver() {
 
         boolean side1Empty = true;
         boolean side2Empty = true;
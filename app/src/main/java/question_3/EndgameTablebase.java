@@ -0,0 +1,190 @@
+package question_3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/// Exact values for every position with at most `maxSeeds` seeds left on the
+/// board, read from a file built by TablebaseGenerator.
+///
+/// The file is memory-mapped, so opening it costs nothing up front and only
+/// the pages actually probed are ever read; none of it lives on the heap.
+///
+/// Positions are stored from the point of view of the player to move (their
+/// pits rotated to 0-5), ordered by seed count and then by a perfect
+/// combinatorial rank, one signed byte each. A value is what the mover will
+/// still gain over the opponent from here with best play: future captures
+/// plus the seeds collected at the end. A line that cycles forever without a
+/// capture gains nothing for either side.
+public final class EndgameTablebase {
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x4F575442; // "OWTB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int MAX_SUPPORTED_SEEDS = 20;
+
+    // BINOMIAL[n][k] for n up to 48 seeds + 12 pits
+    private static final long[][] BINOMIAL = new long[61][13];
+
+    static {
+        for (int n = 0; n < BINOMIAL.length; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, 12); k++)
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k <= n - 1 ? BINOMIAL[n - 1][k] : 0);
+        }
+    }
+
+    private final MappedByteBuffer values;
+    private final int maxSeeds;
+
+    private EndgameTablebase(MappedByteBuffer values, int maxSeeds) {
+        this.values = values;
+        this.maxSeeds = maxSeeds;
+    }
+
+    /// Maps a tablebase file read-only.
+    public static EndgameTablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an Oware tablebase: " + file);
+            }
+            int maxSeeds = buffer.getInt(8);
+            if (maxSeeds < 0 || maxSeeds > MAX_SUPPORTED_SEEDS
+                    || channel.size() != HEADER_BYTES + positionsUpTo(maxSeeds)) {
+                throw new IOException("Corrupt Oware tablebase: " + file);
+            }
+            return new EndgameTablebase(buffer, maxSeeds);
+        }
+    }
+
+    public int getMaxSeeds() {
+        return maxSeeds;
+    }
+
+    public boolean covers(OwareState state) {
+        return state.seedsOnBoard() <= maxSeeds;
+    }
+
+    /// What `player` (to move) will still gain over the opponent from here,
+    /// or UNKNOWN if the position has too many seeds.
+    public int probe(OwareState state, int player) {
+        int seeds = state.seedsOnBoard();
+        if (seeds > maxSeeds)
+            return UNKNOWN;
+        return values.get(HEADER_BYTES + (int) indexOf(state, player, seeds));
+    }
+
+    /// Final score of `player` minus the opponent's under best play, or
+    /// UNKNOWN if the position has too many seeds.
+    public int exactResult(OwareState state, int player) {
+        int value = probe(state, player);
+        return value == UNKNOWN ? UNKNOWN : state.scoreDifference(player) + value;
+    }
+
+    /// The move that achieves the tablebase value, or -1 if the position is
+    /// not covered or `player` has no move.
+    public int bestMove(OwareState state, int player) {
+        if (!covers(state))
+            return -1;
+
+        int moves = state.legalMoves(player);
+        int best = -1;
+        int bestValue = Integer.MIN_VALUE;
+        long side1 = state.side1(), side2 = state.side2();
+
+        while (moves != 0) {
+            int pit = Integer.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+
+            int value = state.play(player, pit)
+                    ? state.scoreDifference(player)
+                    : -exactResult(state, 3 - player);
+            state.restore(side1, side2);
+
+            if (value > bestValue) {
+                bestValue = value;
+                best = pit;
+            }
+        }
+        return best;
+    }
+
+    /// Number of positions with at most `seeds` seeds on the board.
+    static long positionsUpTo(int seeds) {
+        return BINOMIAL[seeds + 12][12];
+    }
+
+    /// Number of positions with exactly `seeds` seeds on the board.
+    static long positionsWith(int seeds) {
+        return BINOMIAL[seeds + 11][11];
+    }
+
+    /// Index of the position as seen by `player`, who holds `seeds` in total
+    /// on the board.
+    static long indexOf(OwareState state, int player, int seeds) {
+        int offset = player == 1 ? 0 : 6;
+        long index = seeds == 0 ? 0 : positionsUpTo(seeds - 1);
+        int remaining = seeds;
+
+        // Positions whose pit i holds fewer seeds come first:
+        // sum over v < a of C(remaining - v + k - 1, k - 1) = C(remaining + k, k) - C(remaining - a + k, k)
+        for (int i = 0; i < 11 && remaining > 0; i++) {
+            int a = state.pit((i + offset) % 12);
+            int k = 11 - i;
+            index += BINOMIAL[remaining + k][k] - BINOMIAL[remaining - a + k][k];
+            remaining -= a;
+        }
+        return index;
+    }
+
+    /// Writes the pits (mover's side first) of the `rank`-th position with
+    /// exactly `seeds` seeds into `pits`.
+    static void unrank(long rank, int seeds, int[] pits) {
+        int remaining = seeds;
+        for (int i = 0; i < 11; i++) {
+            int k = 11 - i;
+            int a = 0;
+            // skip blocks of positions with a smaller count in pit i
+            while (true) {
+                long block = BINOMIAL[remaining - a + k - 1][k - 1];
+                if (rank < block)
+                    break;
+                rank -= block;
+                a++;
+            }
+            pits[i] = a;
+            remaining -= a;
+        }
+        pits[11] = remaining;
+    }
+
+    /// Steps `pits` to the next position with the same seed count, in index
+    /// order. Returns false after the last one.
+    static boolean next(int[] pits) {
+        int suffix = pits[11];
+        for (int i = 10; i >= 0; i--) {
+            if (suffix > 0) {
+                pits[i]++;
+                for (int j = i + 1; j < 11; j++)
+                    pits[j] = 0;
+                pits[11] = suffix - 1;
+                return true;
+            }
+            suffix += pits[i];
+        }
+        return false;
+    }
+
+    static ByteBuffer header(int maxSeeds) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putInt(maxSeeds).putInt(0);
+        header.flip();
+        return header;
+    }
+}
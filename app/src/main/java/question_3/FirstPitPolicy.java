@@ -0,0 +1,10 @@
+package question_3;
+
+/// The original Board behaviour: play the first non-empty pit on our side.
+public class FirstPitPolicy implements MovePolicy {
+
+    @Override
+    public int chooseMove(OwareState state, int player) {
+        return state.firstLegalMove(player);
+    }
+}
@@ -0,0 +1,65 @@
+package question_3;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import metrics.LatencyHistogram;
+
+/// Drives a GameServer locally: keeps `sessions` games running for a fixed
+/// duration, replacing every finished game with a new one, then reports
+/// throughput and turn latency percentiles.
+///
+/// Usage: GameLoadGenerator [sessions] [seconds] [policy1] [policy2]
+public class GameLoadGenerator {
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        MovePolicy player1 = MovePolicy.named(args.length > 2 ? args[2] : "greedy");
+        MovePolicy player2 = MovePolicy.named(args.length > 3 ? args[3] : "random");
+
+        GameServer server = new GameServer();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch drained = new CountDownLatch(sessions);
+
+        // Replace each finished game until the deadline, then let the load drain
+        server.setOnGameOver(session -> {
+            if (System.nanoTime() - deadline < 0)
+                server.createSession(player1, player2);
+            else
+                drained.countDown();
+        });
+
+        System.out.printf("Starting %d sessions for %d s (%s vs %s)%n", sessions, seconds,
+                player1.getClass().getSimpleName(), player2.getClass().getSimpleName());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < sessions; i++)
+            server.createSession(player1, player2);
+
+        // Sample once a second while the load runs
+        long lastTurns = 0;
+        while (System.nanoTime() - deadline < 0) {
+            Thread.sleep(1000);
+            long turns = server.getTurnsPlayed();
+            System.out.printf("active=%d  turns/s=%d  p99=%d us%n",
+                    server.getActiveSessions(), turns - lastTurns,
+                    server.getTurnLatency().getPercentile(0.99) / 1000);
+            lastTurns = turns;
+        }
+
+        drained.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        LatencyHistogram latency = server.getTurnLatency();
+
+        System.out.printf("%ngames=%d  turns=%d  elapsed=%.2f s%n",
+                server.getGamesFinished(), server.getTurnsPlayed(), elapsed);
+        System.out.printf("throughput: %.0f turns/s, %.0f games/s%n",
+                server.getTurnsPlayed() / elapsed, server.getGamesFinished() / elapsed);
+        System.out.printf("turn latency: p50=%d us  p99=%d us  p99.9=%d us  max=%d us%n",
+                latency.getPercentile(0.50) / 1000, latency.getPercentile(0.99) / 1000,
+                latency.getPercentile(0.999) / 1000, latency.getPercentile(1.0) / 1000);
+
+        server.shutdown();
+    }
+}
@@ -0,0 +1,118 @@
+package question_3;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import metrics.LatencyHistogram;
+
+/// Hosts many independent Oware games on a small pool of threads.
+///
+/// Board needs two platform threads per game parked in wait(); here a game is
+/// a GameSession and every turn is a task on a shared executor. By default
+/// that is a fixed pool with one daemon worker per core in front of a single
+/// FIFO queue: a finished turn puts the next one at the back of that queue,
+/// behind every other game's pending turn, so all sessions advance in round
+/// robin and a turn's latency includes its wait for the others. (A
+/// work-stealing pool would run the pushed turn first and play each game to
+/// the end before starting the next.) Any Executor can be supplied instead,
+/// for example a virtual-thread-per-task executor on a JDK that has one.
+public class GameServer {
+    private final Executor executor;
+    private final ConcurrentHashMap<Long, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LatencyHistogram turnLatency = new LatencyHistogram();
+    private volatile Consumer<GameSession> onGameOver = session -> {
+    };
+
+    public GameServer() {
+        this(defaultExecutor());
+    }
+
+    public GameServer(Executor executor) {
+        this.executor = executor;
+    }
+
+    /// Creates a game and starts it. A null policy means that side plays
+    /// through submitMove.
+    public GameSession createSession(MovePolicy player1, MovePolicy player2) {
+        long id = nextId.incrementAndGet();
+        GameSession session = new GameSession(id, this, player1, player2);
+        sessions.put(id, session);
+        session.start();
+        return session;
+    }
+
+    /// Plays `pit` for a remote `player`. Returns false if the session does
+    /// not exist, it is not that player's turn, or the pit is not playable.
+    public boolean submitMove(long sessionId, int player, int pit) {
+        GameSession session = sessions.get(sessionId);
+        return session != null && session.submit(player, pit);
+    }
+
+    public GameSession getSession(long sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public int getActiveSessions() {
+        return sessions.size();
+    }
+
+    public long getTurnsPlayed() {
+        return turns.sum();
+    }
+
+    public long getGamesFinished() {
+        return gamesFinished.sum();
+    }
+
+    /// Time from a turn being handed to the server until its move was applied.
+    public LatencyHistogram getTurnLatency() {
+        return turnLatency;
+    }
+
+    /// Called on the thread that finished the game; keep it short.
+    public void setOnGameOver(Consumer<GameSession> listener) {
+        this.onGameOver = listener;
+    }
+
+    public void shutdown() {
+        if (executor instanceof ExecutorService)
+            ((ExecutorService) executor).shutdown();
+    }
+
+    private static ExecutorService defaultExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors();
+        AtomicInteger workers = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "game-server-" + workers.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    void schedule(GameSession session) {
+        executor.execute(session);
+    }
+
+    void recordTurn(long latencyNanos) {
+        turns.increment();
+        turnLatency.record(latencyNanos);
+    }
+
+    void finished(GameSession session) {
+        sessions.remove(session.getId());
+        gamesFinished.increment();
+        onGameOver.accept(session);
+    }
+}
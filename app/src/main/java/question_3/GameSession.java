@@ -0,0 +1,147 @@
+package question_3;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/// One hosted game. The position is kept as the two packed longs of an
+/// OwareState rather than a Board, so a session is a few dozen bytes and no
+/// thread is ever parked on it: each turn is a short task that the
+/// GameServer submits to its executor, and the task schedules the next turn.
+///
+/// At most one turn runs at a time. The volatile phase field hands ownership
+/// from one turn to the next, which also publishes the plain fields.
+public final class GameSession implements Runnable {
+    static final int AWAITING_REMOTE = 0; // waiting for submitMove
+    static final int SCHEDULED = 1; // a turn task owns the session
+    static final int FINISHED = 2;
+
+    private static final AtomicIntegerFieldUpdater<GameSession> PHASE =
+            AtomicIntegerFieldUpdater.newUpdater(GameSession.class, "phase");
+
+    // Scratch position per executor thread, so turns never allocate one
+    private static final ThreadLocal<OwareState> SCRATCH = ThreadLocal.withInitial(OwareState::new);
+
+    private final long id;
+    private final GameServer server;
+    private final MovePolicy player1; // null: moves come from submitMove
+    private final MovePolicy player2;
+
+    private long side1;
+    private long side2;
+    private long readyNanos; // when the pending turn was handed to the executor
+    private int plies;
+    private int currentPlayer = 1;
+    private volatile int phase = SCHEDULED;
+
+    GameSession(long id, GameServer server, MovePolicy player1, MovePolicy player2) {
+        this.id = id;
+        this.server = server;
+        this.player1 = player1;
+        this.player2 = player2;
+
+        OwareState opening = new OwareState();
+        this.side1 = opening.side1();
+        this.side2 = opening.side2();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public boolean isFinished() {
+        return phase == FINISHED;
+    }
+
+    /// Player whose turn it is; meaningless once the game is finished.
+    public int getCurrentPlayer() {
+        return phase == FINISHED ? 0 : currentPlayer;
+    }
+
+    public int getPlies() {
+        phase(); // volatile read before the plain fields
+        return plies;
+    }
+
+    /// Copies the current position into `target`.
+    public void copyStateTo(OwareState target) {
+        phase();
+        target.restore(side1, side2);
+    }
+
+    /// Runs the turn of the automated player to move.
+    @Override
+    public void run() {
+        MovePolicy policy = currentPlayer == 1 ? player1 : player2;
+        OwareState state = SCRATCH.get();
+        state.restore(side1, side2);
+
+        int pit = policy.chooseMove(state, currentPlayer);
+        applyMove(state, pit);
+    }
+
+    /// Applies a move from a remote player. Returns false if it is not that
+    /// player's turn or the pit is not playable.
+    boolean submit(int player, int pit) {
+        if (player != currentPlayer || !PHASE.compareAndSet(this, AWAITING_REMOTE, SCHEDULED))
+            return false;
+
+        // Owning the session now; re-check the turn in case we raced a move
+        OwareState state = SCRATCH.get();
+        state.restore(side1, side2);
+        // Range first: 1 << pit only looks at the low five bits of pit
+        if (player != currentPlayer || pit < 0 || pit >= OwareState.PITS
+                || (state.legalMoves(player) & (1 << pit)) == 0) {
+            phase = AWAITING_REMOTE;
+            return false;
+        }
+
+        readyNanos = System.nanoTime();
+        boolean over;
+        try {
+            over = state.play(player, pit);
+        } catch (RuntimeException | Error e) {
+            phase = AWAITING_REMOTE; // nothing was applied, so the session stays playable
+            throw e;
+        }
+        finishTurn(state, pit, over);
+        return true;
+    }
+
+    /// Hands the first turn to whoever plays it.
+    void start() {
+        handOff();
+    }
+
+    private void applyMove(OwareState state, int pit) {
+        finishTurn(state, pit, pit < 0 || state.play(currentPlayer, pit));
+    }
+
+    // Stores the position `pit` led to and hands the next turn on
+    private void finishTurn(OwareState state, int pit, boolean over) {
+        side1 = state.side1();
+        side2 = state.side2();
+        if (pit >= 0)
+            plies++;
+        server.recordTurn(System.nanoTime() - readyNanos);
+
+        if (over) {
+            phase = FINISHED;
+            server.finished(this);
+            return;
+        }
+        currentPlayer = 3 - currentPlayer;
+        handOff();
+    }
+
+    private void handOff() {
+        if ((currentPlayer == 1 ? player1 : player2) == null) {
+            phase = AWAITING_REMOTE;
+        } else {
+            readyNanos = System.nanoTime();
+            server.schedule(this);
+        }
+    }
+
+    private int phase() {
+        return phase;
+    }
+}
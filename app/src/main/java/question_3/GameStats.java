@@ -0,0 +1,125 @@
+package question_3;
+
+/// Outcome counters for a batch of headless games. Not thread-safe: each
+/// fork/join leaf fills its own instance and the results are merged.
+public class GameStats {
+    private long games;
+    private long player1Wins;
+    private long player2Wins;
+    private long draws;
+    private long truncated; // stopped at the ply limit
+    private long score1Total;
+    private long score2Total;
+    private long pliesTotal;
+    private int minPlies = Integer.MAX_VALUE;
+    private int maxPlies;
+    private final long[] pliesHistogram;
+
+    public GameStats(int maxPlies) {
+        this.pliesHistogram = new long[maxPlies + 1];
+    }
+
+    /// Records one finished (or truncated) game. A truncated game has no
+    /// result, so it counts towards the scores and lengths but not towards
+    /// wins or draws.
+    public void record(int score1, int score2, int plies, boolean wasTruncated) {
+        games++;
+        if (wasTruncated)
+            truncated++;
+        else if (score1 > score2)
+            player1Wins++;
+        else if (score2 > score1)
+            player2Wins++;
+        else
+            draws++;
+
+        score1Total += score1;
+        score2Total += score2;
+        pliesTotal += plies;
+        minPlies = Math.min(minPlies, plies);
+        maxPlies = Math.max(maxPlies, plies);
+        pliesHistogram[plies]++;
+    }
+
+    /// Adds `other` into this instance and returns it.
+    public GameStats merge(GameStats other) {
+        games += other.games;
+        player1Wins += other.player1Wins;
+        player2Wins += other.player2Wins;
+        draws += other.draws;
+        truncated += other.truncated;
+        score1Total += other.score1Total;
+        score2Total += other.score2Total;
+        pliesTotal += other.pliesTotal;
+        minPlies = Math.min(minPlies, other.minPlies);
+        maxPlies = Math.max(maxPlies, other.maxPlies);
+        for (int i = 0; i < pliesHistogram.length; i++)
+            pliesHistogram[i] += other.pliesHistogram[i];
+        return this;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getPlayer1Wins() {
+        return player1Wins;
+    }
+
+    public long getPlayer2Wins() {
+        return player2Wins;
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public long getTruncated() {
+        return truncated;
+    }
+
+    public double getAverageScore(int player) {
+        return games == 0 ? 0 : (double) (player == 1 ? score1Total : score2Total) / games;
+    }
+
+    public double getAveragePlies() {
+        return games == 0 ? 0 : (double) pliesTotal / games;
+    }
+
+    public int getMinPlies() {
+        return games == 0 ? 0 : minPlies;
+    }
+
+    public int getMaxPlies() {
+        return maxPlies;
+    }
+
+    /// Game length below which `fraction` (0-1) of the games finished.
+    public int getPliesPercentile(double fraction) {
+        long target = (long) Math.ceil(fraction * games);
+        long seen = 0;
+        for (int plies = 0; plies < pliesHistogram.length; plies++) {
+            seen += pliesHistogram[plies];
+            if (seen >= target && seen > 0)
+                return plies;
+        }
+        return maxPlies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "games=%d  P1 wins=%.2f%%  P2 wins=%.2f%%  draws=%.2f%% (of finished games)  truncated=%d%n"
+                        + "avg score P1=%.2f  P2=%.2f%n"
+                        + "plies avg=%.1f  min=%d  median=%d  p99=%d  max=%d",
+                games, percent(player1Wins), percent(player2Wins), percent(draws), truncated,
+                getAverageScore(1), getAverageScore(2),
+                getAveragePlies(), getMinPlies(), getPliesPercentile(0.5), getPliesPercentile(0.99), maxPlies);
+    }
+
+    // Share of the games that reached a result
+    private double percent(long count) {
+        long finished = games - truncated;
+        return finished == 0 ? 0 : 100.0 * count / finished;
+    }
+}
@@ -0,0 +1,28 @@
+package question_3;
+
+/// Plays the pit that captures the most seeds right now, falling back to the
+/// first non-empty pit. Stateless, so safe to share between threads.
+public class GreedyCapturePolicy implements MovePolicy {
+
+    @Override
+    public int chooseMove(OwareState state, int player) {
+        int moves = state.legalMoves(player);
+        int best = -1;
+        int bestCapture = -1;
+        long side1 = state.side1(), side2 = state.side2();
+
+        while (moves != 0) {
+            int pit = Integer.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+
+            int captured = state.makeMove(player, pit);
+            state.restore(side1, side2);
+
+            if (captured > bestCapture) {
+                bestCapture = captured;
+                best = pit;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,26 @@
+package question_3;
+
+/// Decides which pit a player sows from. Implementations may inspect and
+/// temporarily modify `state`, but must leave it as they found it.
+public interface MovePolicy {
+
+    /// Returns a pit owned by `player` that holds seeds, or -1 if there is none.
+    int chooseMove(OwareState state, int player);
+
+    /// Looks a policy up by name: "first", "random", "greedy" or "search:<ms>".
+    static MovePolicy named(String name) {
+        if (name.startsWith("search:"))
+            return new AlphaBetaSearch(Long.parseLong(name.substring("search:".length())));
+
+        switch (name) {
+            case "first":
+                return new FirstPitPolicy();
+            case "random":
+                return new RandomPolicy();
+            case "greedy":
+                return new GreedyCapturePolicy();
+            default:
+                throw new IllegalArgumentException("Unknown move policy: " + name);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package question_3;
+
+import java.util.SplittableRandom;
+
+/// A compact, mutable Oware position that follows the same rules as Board.
+///
+/// Each side lives in one long: six 6-bit pit counters (bits 0-35) followed
+/// by that player's 6-bit score (bits 36-41). Player 1 owns pits 0-5 and
+/// player 2 owns pits 6-11. With 48 seeds in play no field can overflow, so a
+/// whole position is two primitives and undoing a move is just restoring them:
+///
+///     long s1 = state.side1(), s2 = state.side2();
+///     state.makeMove(player, pit);
+///     ...
+///     state.restore(s1, s2);
+public final class OwareState {
+    public static final int PITS = 12;
+    public static final int INITIAL_SEEDS = 4;
+
+    private static final int FIELD_BITS = 6;
+    private static final long FIELD_MASK = (1L << FIELD_BITS) - 1;
+    private static final int SCORE_SHIFT = 36;
+    private static final long PITS_MASK = (1L << SCORE_SHIFT) - 1;
+
+    // One seed in every pit of a side
+    private static final long ONES = 0x041041041L;
+
+    // Sowing tables: one seed in each of the `rem` pits after `pit`, skipping
+    // `pit` itself, split into the two sides. Indexed by pit * 11 + rem.
+    private static final long[] SOW_SIDE1 = new long[PITS * 11];
+    private static final long[] SOW_SIDE2 = new long[PITS * 11];
+
+    // Zobrist keys for hashing positions in transposition tables
+    private static final long[][] PIT_KEYS = new long[PITS][49];
+    private static final long[][] SCORE_KEYS = new long[2][49];
+    private static final long PLAYER_2_KEY;
+
+    static {
+        for (int pit = 0; pit < PITS; pit++) {
+            for (int rem = 0; rem < 11; rem++) {
+                long s1 = 0, s2 = 0;
+                for (int step = 1; step <= rem; step++) {
+                    int index = (pit + step) % PITS;
+                    if (index < 6)
+                        s1 += 1L << (index * FIELD_BITS);
+                    else
+                        s2 += 1L << ((index - 6) * FIELD_BITS);
+                }
+                SOW_SIDE1[pit * 11 + rem] = s1;
+                SOW_SIDE2[pit * 11 + rem] = s2;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(0x0A1E_5EEDL);
+        for (long[] keys : PIT_KEYS)
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = random.nextLong();
+        for (long[] keys : SCORE_KEYS)
+            for (int i = 0; i < keys.length; i++)
+                keys[i] = random.nextLong();
+        PLAYER_2_KEY = random.nextLong();
+    }
+
+    private long side1;
+    private long side2;
+
+    /// Creates the opening position: four seeds in every pit, no score.
+    public OwareState() {
+        reset();
+    }
+
+    public OwareState(int[] pits, int score1, int score2) {
+        set(pits, score1, score2);
+    }
+
+    public OwareState(OwareState other) {
+        restore(other.side1, other.side2);
+    }
+
+    public void reset() {
+        side1 = INITIAL_SEEDS * ONES;
+        side2 = INITIAL_SEEDS * ONES;
+    }
+
+    public void set(int[] pits, int score1, int score2) {
+        if (pits.length != PITS) {
+            throw new IllegalArgumentException("Expected 12 pits, got " + pits.length);
+        }
+        long s1 = (long) score1 << SCORE_SHIFT;
+        long s2 = (long) score2 << SCORE_SHIFT;
+        for (int i = 0; i < 6; i++) {
+            s1 |= (long) pits[i] << (i * FIELD_BITS);
+            s2 |= (long) pits[i + 6] << (i * FIELD_BITS);
+        }
+        restore(s1, s2);
+    }
+
+    public long side1() {
+        return side1;
+    }
+
+    public long side2() {
+        return side2;
+    }
+
+    /// Puts back a position previously read through side1() and side2().
+    public void restore(long side1, long side2) {
+        this.side1 = side1;
+        this.side2 = side2;
+    }
+
+    public void copyFrom(OwareState other) {
+        restore(other.side1, other.side2);
+    }
+
+    public int pit(int index) {
+        return index < 6
+                ? (int) ((side1 >>> (index * FIELD_BITS)) & FIELD_MASK)
+                : (int) ((side2 >>> ((index - 6) * FIELD_BITS)) & FIELD_MASK);
+    }
+
+    public int score(int player) {
+        return (int) ((player == 1 ? side1 : side2) >>> SCORE_SHIFT);
+    }
+
+    /// Score of `player` minus the score of the opponent.
+    public int scoreDifference(int player) {
+        int diff = (int) (side1 >>> SCORE_SHIFT) - (int) (side2 >>> SCORE_SHIFT);
+        return player == 1 ? diff : -diff;
+    }
+
+    public int seedsOnSide(int player) {
+        return sumPits(player == 1 ? side1 : side2);
+    }
+
+    public int seedsOnBoard() {
+        return sumPits(side1) + sumPits(side2);
+    }
+
+    /// Bit i is set when pit i is a legal move for `player`.
+    public int legalMoves(int player) {
+        long side = player == 1 ? side1 : side2;
+        int offset = player == 1 ? 0 : 6;
+        int moves = 0;
+        for (int i = 0; i < 6; i++) {
+            if (((side >>> (i * FIELD_BITS)) & FIELD_MASK) != 0)
+                moves |= 1 << (i + offset);
+        }
+        return moves;
+    }
+
+    /// Same choice as Board's default: first non-empty pit on the player's side.
+    public int firstLegalMove(int player) {
+        int moves = legalMoves(player);
+        return moves == 0 ? -1 : Integer.numberOfTrailingZeros(moves);
+    }
+
+    /// Sows the seeds of `pit` and captures backwards from the last pit sown,
+    /// exactly like Board.makeMove. Returns the number of seeds captured.
+    public int makeMove(int player, int pit) {
+        int seeds = pit(pit);
+        clearPit(pit);
+
+        // Whole laps drop one seed in every other pit; the remainder is a table lookup
+        int laps = seeds / 11;
+        int rem = seeds - laps * 11;
+        if (laps > 0) {
+            side1 += laps * ONES;
+            side2 += laps * ONES;
+            clearPit(pit);
+        }
+        side1 += SOW_SIDE1[pit * 11 + rem];
+        side2 += SOW_SIDE2[pit * 11 + rem];
+
+        int index = rem > 0 ? (pit + rem) % PITS : (pit + PITS - 1) % PITS;
+
+        // CAPTURE
+        int captured = 0;
+        while (isOpponentPit(player, index)) {
+            int count = pit(index);
+            if (count != 2 && count != 3)
+                break;
+            captured += count;
+            clearPit(index);
+            index = (index + PITS - 1) % PITS;
+        }
+
+        if (captured > 0) {
+            if (player == 1)
+                side1 += (long) captured << SCORE_SHIFT;
+            else
+                side2 += (long) captured << SCORE_SHIFT;
+        }
+        return captured;
+    }
+
+    /// The game ends as soon as one side is empty.
+    public boolean isGameOver() {
+        return (side1 & PITS_MASK) == 0 || (side2 & PITS_MASK) == 0;
+    }
+
+    /// Adds the seeds left on each side to that side's owner.
+    public void collectRemaining() {
+        side1 = (long) (score(1) + sumPits(side1)) << SCORE_SHIFT;
+        side2 = (long) (score(2) + sumPits(side2)) << SCORE_SHIFT;
+    }
+
+    /// Plays a move and finishes the game if it emptied a side. Returns true
+    /// when the game is over.
+    public boolean play(int player, int pit) {
+        makeMove(player, pit);
+        if (isGameOver()) {
+            collectRemaining();
+            return true;
+        }
+        return false;
+    }
+
+    /// Zobrist hash of the position with `player` to move.
+    public long hash(int player) {
+        long hash = SCORE_KEYS[0][score(1)] ^ SCORE_KEYS[1][score(2)];
+        for (int i = 0; i < 6; i++) {
+            hash ^= PIT_KEYS[i][(int) ((side1 >>> (i * FIELD_BITS)) & FIELD_MASK)];
+            hash ^= PIT_KEYS[i + 6][(int) ((side2 >>> (i * FIELD_BITS)) & FIELD_MASK)];
+        }
+        return player == 1 ? hash : hash ^ PLAYER_2_KEY;
+    }
+
+    /// Writes the pit counts into `pits`, which must have length 12.
+    public void copyPits(int[] pits) {
+        for (int i = 0; i < PITS; i++)
+            pits[i] = pit(i);
+    }
+
+    private void clearPit(int index) {
+        if (index < 6)
+            side1 &= ~(FIELD_MASK << (index * FIELD_BITS));
+        else
+            side2 &= ~(FIELD_MASK << ((index - 6) * FIELD_BITS));
+    }
+
+    private static boolean isOpponentPit(int player, int index) {
+        return player == 1 ? index >= 6 : index <= 5;
+    }
+
+    private static int sumPits(long side) {
+        int sum = 0;
+        for (int i = 0; i < 6; i++)
+            sum += (int) ((side >>> (i * FIELD_BITS)) & FIELD_MASK);
+        return sum;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 11; i >= 6; i--)
+            text.append('[').append(pit(i)).append("] ");
+        text.append("| P2: ").append(score(2)).append('\n');
+        for (int i = 0; i <= 5; i++)
+            text.append('[').append(pit(i)).append("] ");
+        text.append("| P1: ").append(score(1));
+        return text.toString();
+    }
+}
@@ -5,10 +5,16 @@ public class Player implements Runnable {
 
     private Board board; // shared board object
     private int id; // player id (1 or 2)
+    private MovePolicy policy; // null means the board's default move
 
     public Player(Board board, int id) {
+        this(board, id, null);
+    }
+
+    public Player(Board board, int id, MovePolicy policy) {
         this.board = board;
         this.id = id;
+        this.policy = policy;
     }
 
     @Override
@@ -18,7 +24,7 @@ public class Player implements Runnable {
         while (true) {
 
             // attempt to play a turn
-            board.playTurn(id);
+            board.playTurn(id, policy);
 
             // if thread was interrupted externally, stop loop
             if (Thread.currentThread().isInterrupted())
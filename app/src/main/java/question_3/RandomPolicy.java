@@ -0,0 +1,20 @@
+package question_3;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/// Plays a uniformly random legal pit. Safe to share between threads.
+public class RandomPolicy implements MovePolicy {
+
+    @Override
+    public int chooseMove(OwareState state, int player) {
+        int moves = state.legalMoves(player);
+        if (moves == 0)
+            return -1;
+
+        // skip a random number of set bits
+        int skip = ThreadLocalRandom.current().nextInt(Integer.bitCount(moves));
+        for (int i = 0; i < skip; i++)
+            moves &= moves - 1;
+        return Integer.numberOfTrailingZeros(moves);
+    }
+}
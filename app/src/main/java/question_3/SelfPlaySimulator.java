@@ -0,0 +1,107 @@
+package question_3;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/// Plays large numbers of headless Oware games between two move policies.
+///
+/// Unlike Board there are no player threads, no printing and no sleeping:
+/// the requested games are split into ranges with fork/join, each leaf plays
+/// its games one after another on a single reused OwareState, and the per-leaf
+/// GameStats are merged on the way back up. Policies are shared by all
+/// workers, so they must be thread-safe (all the built-in ones are).
+public class SelfPlaySimulator {
+    public static final int DEFAULT_MAX_PLIES = 1000;
+
+    // Games played sequentially by one leaf task
+    private static final long LEAF_GAMES = 1024;
+
+    private final MovePolicy player1;
+    private final MovePolicy player2;
+    private final int maxPlies;
+    private final ForkJoinPool pool;
+
+    public SelfPlaySimulator(MovePolicy player1, MovePolicy player2) {
+        this(player1, player2, DEFAULT_MAX_PLIES, ForkJoinPool.commonPool());
+    }
+
+    /// Games still running after `maxPlies` moves (the rules allow endless
+    /// cycles) are stopped, their remaining seeds collected, and counted as
+    /// truncated.
+    public SelfPlaySimulator(MovePolicy player1, MovePolicy player2, int maxPlies, ForkJoinPool pool) {
+        this.player1 = player1;
+        this.player2 = player2;
+        this.maxPlies = maxPlies;
+        this.pool = pool;
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        MovePolicy player1 = MovePolicy.named(args.length > 1 ? args[1] : "greedy");
+        MovePolicy player2 = MovePolicy.named(args.length > 2 ? args[2] : "random");
+
+        SelfPlaySimulator simulator = new SelfPlaySimulator(player1, player2);
+
+        long start = System.nanoTime();
+        GameStats stats = simulator.run(games);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(stats);
+        System.out.printf("%.2f s, %.0f games/s on %d threads%n",
+                seconds, stats.getGames() / seconds, simulator.pool.getParallelism());
+    }
+
+    public GameStats run(long games) {
+        return pool.invoke(new GameRange(games));
+    }
+
+    /// Plays one game from the opening position on `state` and records it.
+    void playGame(OwareState state, GameStats stats) {
+        state.reset();
+        int player = 1;
+        int plies = 0;
+        boolean finished = false;
+
+        while (plies < maxPlies) {
+            int pit = (player == 1 ? player1 : player2).chooseMove(state, player);
+            if (pit < 0) {
+                finished = true; // no move: Board ends the game as it stands
+                break;
+            }
+            plies++;
+            if (state.play(player, pit)) {
+                finished = true;
+                break;
+            }
+            player = 3 - player;
+        }
+
+        if (!finished)
+            state.collectRemaining();
+        stats.record(state.score(1), state.score(2), plies, !finished);
+    }
+
+    private final class GameRange extends RecursiveTask<GameStats> {
+        private final long games;
+
+        GameRange(long games) {
+            this.games = games;
+        }
+
+        @Override
+        protected GameStats compute() {
+            if (games <= LEAF_GAMES) {
+                GameStats stats = new GameStats(maxPlies);
+                OwareState state = new OwareState();
+                for (long i = 0; i < games; i++)
+                    playGame(state, stats);
+                return stats;
+            }
+
+            GameRange left = new GameRange(games / 2);
+            GameRange right = new GameRange(games - games / 2);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+}
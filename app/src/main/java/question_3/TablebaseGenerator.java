@@ -0,0 +1,148 @@
+package question_3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/// Builds an EndgameTablebase file by retrograde analysis.
+///
+/// A capture always removes seeds, so positions are solved one seed count at
+/// a time, from an empty board upwards: captures lead into layers that are
+/// already final, and only non-capturing moves stay inside the layer being
+/// solved. Because those moves can cycle, each layer is solved by value
+/// iteration, starting from "nothing more to gain" and sweeping the whole
+/// layer in parallel until no value changes.
+///
+/// Usage: TablebaseGenerator [maxSeeds] [output file]
+public class TablebaseGenerator {
+    // Positions handled by one parallel task within a sweep
+    private static final int CHUNK = 4096;
+    private static final int MAX_SWEEPS = 10_000;
+
+    private final int maxSeeds;
+
+    // Final values of every layer solved so far
+    private final byte[] table;
+
+    public TablebaseGenerator(int maxSeeds) {
+        if (maxSeeds < 0 || maxSeeds > EndgameTablebase.MAX_SUPPORTED_SEEDS) {
+            throw new IllegalArgumentException("Seed count must be between 0 and "
+                    + EndgameTablebase.MAX_SUPPORTED_SEEDS + ": " + maxSeeds);
+        }
+        this.maxSeeds = maxSeeds;
+        this.table = new byte[(int) EndgameTablebase.positionsUpTo(maxSeeds)];
+    }
+
+    public static void main(String[] args) throws IOException {
+        int maxSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        Path output = Paths.get(args.length > 1 ? args[1] : "oware-" + maxSeeds + ".tb");
+
+        long start = System.nanoTime();
+        TablebaseGenerator generator = new TablebaseGenerator(maxSeeds);
+        generator.build();
+        generator.write(output);
+
+        System.out.printf("Wrote %d positions to %s in %.1f s%n",
+                EndgameTablebase.positionsUpTo(maxSeeds), output, (System.nanoTime() - start) / 1e9);
+    }
+
+    public void build() {
+        for (int seeds = 0; seeds <= maxSeeds; seeds++) {
+            long started = System.nanoTime();
+            int sweeps = solveLayer(seeds);
+            System.out.printf("layer %2d: %,d positions, %d sweeps, %.2f s%n", seeds,
+                    EndgameTablebase.positionsWith(seeds), sweeps, (System.nanoTime() - started) / 1e9);
+        }
+    }
+
+    public void write(Path output) throws IOException {
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = EndgameTablebase.header(maxSeeds);
+            while (header.hasRemaining())
+                channel.write(header);
+            ByteBuffer body = ByteBuffer.wrap(table);
+            while (body.hasRemaining())
+                channel.write(body);
+        }
+    }
+
+    /// Solves every position with exactly `seeds` seeds; returns the number of
+    /// sweeps it took.
+    private int solveLayer(int seeds) {
+        int offset = seeds == 0 ? 0 : (int) EndgameTablebase.positionsUpTo(seeds - 1);
+        int size = (int) EndgameTablebase.positionsWith(seeds);
+        int chunks = (size + CHUNK - 1) / CHUNK;
+
+        byte[] current = new byte[size]; // everyone starts at "nothing more to gain"
+        byte[] next = new byte[size];
+
+        for (int sweep = 1; sweep <= MAX_SWEEPS; sweep++) {
+            byte[] in = current, out = next;
+            boolean changed = IntStream.range(0, chunks).parallel()
+                    .mapToObj(chunk -> sweepChunk(seeds, offset, chunk, in, out))
+                    .reduce(false, Boolean::logicalOr);
+
+            current = out;
+            next = in;
+            if (!changed) {
+                System.arraycopy(current, 0, table, offset, size);
+                return sweep;
+            }
+        }
+        throw new IllegalStateException("Layer " + seeds + " did not converge");
+    }
+
+    private boolean sweepChunk(int seeds, int offset, int chunk, byte[] in, byte[] out) {
+        int from = chunk * CHUNK;
+        int to = Math.min(from + CHUNK, in.length);
+        int[] pits = new int[12];
+        OwareState state = new OwareState();
+        boolean changed = false;
+
+        EndgameTablebase.unrank(from, seeds, pits);
+        for (int rank = from; rank < to; rank++) {
+            state.set(pits, 0, 0);
+            byte value = (byte) evaluate(state, seeds, offset, in);
+            out[rank] = value;
+            changed |= value != in[rank];
+            EndgameTablebase.next(pits);
+        }
+        return changed;
+    }
+
+    /// Best gain for the mover (player 1 in the rotated frame) given the
+    /// previous sweep's values for this layer.
+    private int evaluate(OwareState state, int seeds, int offset, byte[] layer) {
+        int moves = state.legalMoves(1);
+        if (moves == 0)
+            return 0; // Board ends the game without collecting
+
+        int best = Integer.MIN_VALUE;
+        long side1 = state.side1(), side2 = state.side2();
+        while (moves != 0) {
+            int pit = Integer.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+
+            int captured = state.makeMove(1, pit);
+            int value;
+            if (state.isGameOver()) {
+                value = captured + state.seedsOnSide(1) - state.seedsOnSide(2);
+            } else {
+                int remaining = seeds - captured;
+                int index = (int) EndgameTablebase.indexOf(state, 2, remaining);
+                int opponent = remaining < seeds ? table[index] : layer[index - offset];
+                value = captured - opponent;
+            }
+            state.restore(side1, side2);
+
+            if (value > best)
+                best = value;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,19 @@
+package question_3;
+
+/// Plays perfectly once the tablebase covers the position and defers to
+/// another policy before that.
+public class TablebasePolicy implements MovePolicy {
+    private final EndgameTablebase tablebase;
+    private final MovePolicy fallback;
+
+    public TablebasePolicy(EndgameTablebase tablebase, MovePolicy fallback) {
+        this.tablebase = tablebase;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public int chooseMove(OwareState state, int player) {
+        int pit = tablebase.bestMove(state, player);
+        return pit != -1 ? pit : fallback.chooseMove(state, player);
+    }
+}
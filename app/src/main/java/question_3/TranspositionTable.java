@@ -0,0 +1,69 @@
+package question_3;
+
+import java.util.Arrays;
+
+/// A fixed-size, lock-free transposition table shared by every search thread.
+///
+/// Each slot is two longs: the packed entry and the hash XOR the entry. A
+/// torn write from two racing threads produces a pair that no longer XORs back
+/// to the probing hash, so it simply reads as a miss.
+final class TranspositionTable {
+    static final int EXACT = 0;
+    static final int LOWER = 1;
+    static final int UPPER = 2;
+
+    private final long[] checks;
+    private final long[] entries;
+    private final int mask;
+
+    TranspositionTable(int sizeLog2) {
+        int size = 1 << sizeLog2;
+        this.checks = new long[size];
+        this.entries = new long[size];
+        this.mask = size - 1;
+    }
+
+    /// Returns the packed entry for `hash`, or 0 when there is none.
+    long probe(long hash) {
+        int slot = (int) hash & mask;
+        long entry = entries[slot];
+        return (checks[slot] ^ entry) == hash ? entry : 0;
+    }
+
+    void store(long hash, int value, int depth, int bound, int move) {
+        int slot = (int) hash & mask;
+        long entry = pack(value, depth, bound, move);
+        entries[slot] = entry;
+        checks[slot] = hash ^ entry;
+    }
+
+    void clear() {
+        Arrays.fill(checks, 0);
+        Arrays.fill(entries, 0);
+    }
+
+    // Layout: value + 32768 (16 bits) | depth (8) | bound (2) | move + 1 (4) | present (1)
+    private static long pack(int value, int depth, int bound, int move) {
+        return (value + 32768L)
+                | (long) depth << 16
+                | (long) bound << 24
+                | (long) (move + 1) << 26
+                | 1L << 30;
+    }
+
+    static int value(long entry) {
+        return (int) (entry & 0xFFFF) - 32768;
+    }
+
+    static int depth(long entry) {
+        return (int) (entry >>> 16) & 0xFF;
+    }
+
+    static int bound(long entry) {
+        return (int) (entry >>> 24) & 0x3;
+    }
+
+    static int move(long entry) {
+        return ((int) (entry >>> 26) & 0xF) - 1;
+    }
+}
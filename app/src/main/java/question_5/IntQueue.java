@@ -0,0 +1,27 @@
+package question_5;
+
+/// A bounded, non-blocking FIFO of primitive ints.
+public interface IntQueue {
+    /// Returned by poll() when the queue is empty; outside the int range, so
+    /// it can never be mistaken for a value.
+    long EMPTY = Long.MIN_VALUE;
+
+    /// Adds `value` unless the queue is full. Returns false if it was.
+    boolean offer(int value);
+
+    /// Removes and returns the head, or EMPTY if there is none.
+    long poll();
+
+    /// Adds as many of `values[offset .. offset + length)` as fit, in order,
+    /// and returns how many were added (0 when full).
+    int offerAll(int[] values, int offset, int length);
+
+    /// Moves up to `max` values into `target` starting at `offset` and
+    /// returns how many were moved (0 when empty).
+    int drainTo(int[] target, int offset, int max);
+
+    /// Number of values currently queued; only a snapshot under concurrency.
+    int size();
+
+    int capacity();
+}
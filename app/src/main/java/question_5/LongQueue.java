@@ -0,0 +1,25 @@
+package question_5;
+
+/// A bounded, non-blocking FIFO of primitive longs.
+public interface LongQueue {
+
+    /// Adds `value` unless the queue is full. Returns false if it was.
+    boolean offer(long value);
+
+    /// Removes and returns the head, or `ifEmpty` if there is none. Pick a
+    /// sentinel that the producers never enqueue.
+    long poll(long ifEmpty);
+
+    /// Adds as many of `values[offset .. offset + length)` as fit, in order,
+    /// and returns how many were added (0 when full).
+    int offerAll(long[] values, int offset, int length);
+
+    /// Moves up to `max` values into `target` starting at `offset` and
+    /// returns how many were moved (0 when empty).
+    int drainTo(long[] target, int offset, int max);
+
+    /// Number of values currently queued; only a snapshot under concurrency.
+    int size();
+
+    int capacity();
+}
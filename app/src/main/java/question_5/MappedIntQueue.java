@@ -0,0 +1,366 @@
+package question_5;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/// A durable, effectively unbounded IntQueue backed by memory-mapped files.
+///
+/// Values are appended to fixed-size segment files (segment-<n>.dat) in a
+/// directory. Only the segment being written and the segment being read are
+/// mapped, so the heap never grows with the backlog: everything in between
+/// lives in the page cache and the kernel writes it to disk as memory gets
+/// tight. When the reader finishes a segment the file is deleted.
+///
+/// A MappedByteBuffer is normally unmapped only when it is garbage collected,
+/// and until then a deleted segment still holds its disk space (and cannot be
+/// deleted at all on Windows). A small heap may go a long time without a
+/// collection, so segments are unmapped explicitly as soon as a side moves
+/// past them, through sun.misc.Unsafe.invokeCleaner. At most the meta file
+/// and two segments are mapped at any time. If that method is not available
+/// the old mappings are left to the collector. Closing the queue unmaps
+/// everything, so a closed queue refuses further use.
+///
+/// The write and read cursors live in a small mapped meta.dat and are updated
+/// after every operation, so a queue reopened on the same directory resumes
+/// exactly where the consumer stopped (after a process crash; call sync()
+/// to also survive an OS crash). A segment is forced to disk when the writer
+/// moves on to the next one, so sync() only has the current one left to do.
+///
+/// Any number of threads may produce and consume: each side is guarded by its
+/// own lock, so producers never block consumers. The write cursor is volatile
+/// and is published after the value is written.
+public class MappedIntQueue implements IntQueue, Closeable {
+    public static final int DEFAULT_SEGMENT_INTS = 1 << 20; // 4 MB segments
+
+    private static final int MAGIC = 0x4F574D51; // "OWMQ"
+    private static final int META_BYTES = 32;
+    private static final int SEGMENT_INTS_OFFSET = 4;
+    private static final int WRITE_CURSOR_OFFSET = 8;
+    private static final int READ_CURSOR_OFFSET = 16;
+
+    // Unsafe.invokeCleaner(ByteBuffer) bound to the Unsafe instance; null if unavailable
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    private final Path directory;
+    private final int segmentInts;
+    private final MappedByteBuffer meta;
+
+    private final Object writeLock = new Object();
+    private final Object readLock = new Object();
+
+    private volatile long writeCursor;
+    private volatile long readCursor;
+
+    // Set while holding both locks, so either one is enough to read it
+    private boolean closed;
+
+    // Current segment of each side and its index; guarded by that side's lock
+    private MappedByteBuffer writeSegment;
+    private long writeSegmentIndex = -1;
+    private MappedByteBuffer readSegment;
+    private long readSegmentIndex = -1;
+
+    private MappedIntQueue(Path directory, int segmentInts, MappedByteBuffer meta, long writeCursor,
+            long readCursor) {
+        this.directory = directory;
+        this.segmentInts = segmentInts;
+        this.meta = meta;
+        this.writeCursor = writeCursor;
+        this.readCursor = readCursor;
+    }
+
+    public static MappedIntQueue open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_INTS);
+    }
+
+    /// Opens the queue in `directory`, creating it if needed. An existing
+    /// queue keeps the segment size it was created with.
+    public static MappedIntQueue open(Path directory, int segmentInts) throws IOException {
+        if (segmentInts < 1 || segmentInts > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentInts);
+        }
+        Files.createDirectories(directory);
+
+        MappedByteBuffer meta;
+        try (FileChannel channel = FileChannel.open(directory.resolve("meta.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean fresh = channel.size() == 0;
+            // Checked before mapping, which would silently grow a shorter file
+            // and leave the mapping behind when the check fails
+            if (!fresh)
+                checkMeta(channel, directory);
+            meta = channel.map(FileChannel.MapMode.READ_WRITE, 0, META_BYTES);
+            if (fresh) {
+                meta.putInt(0, MAGIC);
+                meta.putInt(SEGMENT_INTS_OFFSET, segmentInts);
+            }
+        }
+
+        int storedSegmentInts = meta.getInt(SEGMENT_INTS_OFFSET);
+        long writeCursor = meta.getLong(WRITE_CURSOR_OFFSET);
+        long readCursor = meta.getLong(READ_CURSOR_OFFSET);
+        MappedIntQueue queue = new MappedIntQueue(directory, storedSegmentInts, meta, writeCursor, readCursor);
+        try {
+            queue.deleteConsumedSegments();
+        } catch (IOException | RuntimeException e) {
+            queue.close();
+            throw e;
+        }
+        return queue;
+    }
+
+    private static void checkMeta(FileChannel channel, Path directory) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(META_BYTES);
+        if (channel.size() == META_BYTES) {
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // read the whole header
+            }
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a queue directory: " + directory);
+        }
+        int segmentInts = header.getInt(SEGMENT_INTS_OFFSET);
+        if (segmentInts < 1 || segmentInts > Integer.MAX_VALUE / 4) {
+            throw new IOException("Corrupt segment size in " + directory);
+        }
+        long writeCursor = header.getLong(WRITE_CURSOR_OFFSET);
+        long readCursor = header.getLong(READ_CURSOR_OFFSET);
+        if (readCursor < 0 || readCursor > writeCursor) {
+            throw new IOException("Corrupt queue cursors in " + directory);
+        }
+    }
+
+    @Override
+    public boolean offer(int value) {
+        synchronized (writeLock) {
+            ensureOpen();
+            long cursor = writeCursor;
+            writeBuffer(cursor).putInt(offsetOf(cursor), value);
+            publishWrite(cursor + 1);
+        }
+        return true;
+    }
+
+    @Override
+    public int offerAll(int[] values, int offset, int length) {
+        synchronized (writeLock) {
+            ensureOpen();
+            long cursor = writeCursor;
+            for (int i = 0; i < length; i++, cursor++)
+                writeBuffer(cursor).putInt(offsetOf(cursor), values[offset + i]);
+            publishWrite(cursor);
+        }
+        return length;
+    }
+
+    @Override
+    public long poll() {
+        synchronized (readLock) {
+            ensureOpen();
+            long cursor = readCursor;
+            if (cursor >= writeCursor)
+                return EMPTY;
+            int value = readBuffer(cursor).getInt(offsetOf(cursor));
+            publishRead(cursor + 1);
+            return value;
+        }
+    }
+
+    @Override
+    public int drainTo(int[] target, int offset, int max) {
+        synchronized (readLock) {
+            ensureOpen();
+            long cursor = readCursor;
+            int count = (int) Math.min(max, writeCursor - cursor);
+            for (int i = 0; i < count; i++, cursor++)
+                target[offset + i] = readBuffer(cursor).getInt(offsetOf(cursor));
+            if (count > 0)
+                publishRead(cursor);
+            return Math.max(count, 0);
+        }
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, writeCursor - readCursor));
+    }
+
+    /// Bounded only by disk space.
+    @Override
+    public int capacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /// Forces the cursors and every value offered so far to disk. Earlier
+    /// segments were forced when the writer left them.
+    public void sync() {
+        synchronized (writeLock) {
+            ensureOpen();
+            if (writeSegment != null)
+                writeSegment.force();
+        }
+        synchronized (readLock) {
+            ensureOpen();
+            meta.force();
+        }
+    }
+
+    /// Syncs and unmaps everything. Any later operation other than size()
+    /// throws IllegalStateException; closing twice does nothing.
+    @Override
+    public void close() {
+        synchronized (writeLock) {
+            synchronized (readLock) {
+                if (closed)
+                    return;
+                if (writeSegment != null)
+                    writeSegment.force();
+                meta.force();
+                closed = true;
+
+                unmap(writeSegment);
+                writeSegment = null;
+                writeSegmentIndex = -1;
+                unmap(readSegment);
+                readSegment = null;
+                readSegmentIndex = -1;
+                unmap(meta);
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Queue is closed: " + directory);
+        }
+    }
+
+    private void publishWrite(long cursor) {
+        meta.putLong(WRITE_CURSOR_OFFSET, cursor);
+        writeCursor = cursor; // volatile: the values above are now visible to readers
+    }
+
+    private void publishRead(long cursor) {
+        meta.putLong(READ_CURSOR_OFFSET, cursor);
+        long finished = readCursor / segmentInts;
+        readCursor = cursor;
+
+        // Finished one or more segments: unmap our view and reclaim the files
+        if (cursor / segmentInts > finished) {
+            unmap(readSegment);
+            readSegment = null;
+            readSegmentIndex = -1;
+            for (long segment = finished; segment < cursor / segmentInts; segment++)
+                deleteSegment(segment);
+        }
+    }
+
+    private MappedByteBuffer writeBuffer(long cursor) {
+        long segment = cursor / segmentInts;
+        if (segment != writeSegmentIndex) {
+            if (writeSegment != null) {
+                // Nothing else holds on to it, so sync() could not reach it later
+                writeSegment.force();
+                unmap(writeSegment);
+            }
+            writeSegment = map(segment, true);
+            writeSegmentIndex = segment;
+        }
+        return writeSegment;
+    }
+
+    private MappedByteBuffer readBuffer(long cursor) {
+        long segment = cursor / segmentInts;
+        if (segment != readSegmentIndex) {
+            unmap(readSegment);
+            readSegment = map(segment, false);
+            readSegmentIndex = segment;
+        }
+        return readSegment;
+    }
+
+    private int offsetOf(long cursor) {
+        return (int) (cursor % segmentInts) * Integer.BYTES;
+    }
+
+    private MappedByteBuffer map(long segment, boolean create) {
+        Path file = segmentFile(segment);
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return create
+                    ? channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentInts * Integer.BYTES)
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) segmentInts * Integer.BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not map " + file, e);
+        }
+    }
+
+    // The caller must hold the lock of the side that owns the buffer and drop
+    // its reference: touching an unmapped buffer crashes the JVM
+    private static void unmap(MappedByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null)
+            return;
+        try {
+            INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+        } catch (Throwable e) {
+            // Left to the garbage collector
+        }
+    }
+
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private Path segmentFile(long segment) {
+        return directory.resolve(String.format("segment-%016d.dat", segment));
+    }
+
+    private void deleteSegment(long segment) {
+        try {
+            Files.deleteIfExists(segmentFile(segment));
+        } catch (IOException e) {
+            // Still mapped somewhere on platforms that forbid that; retried on the next open
+        }
+    }
+
+    // Removes segment files left behind by a previous run that were fully consumed
+    private void deleteConsumedSegments() throws IOException {
+        long firstLive = readCursor / segmentInts;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "segment-*.dat")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long segment;
+                try {
+                    segment = Long.parseLong(name.substring("segment-".length(), name.length() - ".dat".length()));
+                } catch (NumberFormatException e) {
+                    continue; // not one of ours, so not ours to delete
+                }
+                if (segment >= 0 && segment < firstLive)
+                    Files.deleteIfExists(file);
+            }
+        }
+    }
+}
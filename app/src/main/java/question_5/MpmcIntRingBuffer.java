@@ -0,0 +1,156 @@
+package question_5;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/// Multi-producer, multi-consumer ring buffer of primitive ints (Vyukov's
+/// bounded queue).
+///
+/// Every slot carries a sequence number that says whose turn it is: a
+/// producer may claim index i when the slot's sequence is i, a consumer when
+/// it is i + 1. Claiming is a CAS on the shared producer or consumer counter;
+/// the slot's sequence is then advanced with a release store to hand it to
+/// the other side. Any number of threads may call offer() and poll().
+///
+/// The batch operations claim a whole range with one CAS and then fill or
+/// empty the slots one by one. A slot in the range can still be in the hands
+/// of a thread that claimed it on the other side but has not finished its
+/// copy yet; the batch spins briefly on that slot's sequence, so unlike the
+/// single-value operations it can be held up by a descheduled peer.
+public class MpmcIntRingBuffer extends PaddedIndices implements IntQueue {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int[] buffer;
+    private final long[] sequences;
+    private final int mask;
+    private final int capacity;
+
+    /// `capacity` is rounded up to a power of two. The ring itself always has
+    /// at least two slots: with one, the "free for the next lap" sequence of
+    /// the slot would equal its "full" sequence, so a second offer would
+    /// overwrite an unread value. A capacity of 1 is enforced on top of a
+    /// two-slot ring instead.
+    public MpmcIntRingBuffer(int capacity) {
+        this.capacity = powerOfTwo(capacity);
+        int size = Math.max(2, this.capacity);
+        this.buffer = new int[size];
+        this.sequences = new long[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++)
+            sequences[i] = i;
+    }
+
+    @Override
+    public boolean offer(int value) {
+        long index;
+        int slot;
+        while (true) {
+            index = lvProducerIndex();
+            slot = (int) index & mask;
+            long sequence = (long) SEQUENCE.getAcquire(sequences, slot);
+            if (sequence == index) {
+                if (capacity < buffer.length && index - lvConsumerIndex() >= capacity)
+                    return false; // logically full (capacity 1 on a two-slot ring)
+                if (casProducerIndex(index, index + 1))
+                    break;
+            } else if (sequence < index) {
+                return false; // slot still holds last lap's value: full
+            }
+            // otherwise another producer got here first; retry
+        }
+        buffer[slot] = value;
+        SEQUENCE.setRelease(sequences, slot, index + 1);
+        return true;
+    }
+
+    @Override
+    public long poll() {
+        long index;
+        int slot;
+        while (true) {
+            index = lvConsumerIndex();
+            slot = (int) index & mask;
+            long sequence = (long) SEQUENCE.getAcquire(sequences, slot);
+            if (sequence == index + 1) {
+                if (casConsumerIndex(index, index + 1))
+                    break;
+            } else if (sequence < index + 1) {
+                return EMPTY; // nothing published here yet
+            }
+            // otherwise another consumer got here first; retry
+        }
+        int value = buffer[slot];
+        SEQUENCE.setRelease(sequences, slot, index + buffer.length);
+        return value;
+    }
+
+    @Override
+    public int offerAll(int[] values, int offset, int length) {
+        long index;
+        int count;
+        while (true) {
+            index = lvProducerIndex();
+            long free = capacity - (index - lvConsumerIndex());
+            count = (int) Math.min(length, free);
+            if (count <= 0)
+                return 0;
+            if (casProducerIndex(index, index + count))
+                break;
+        }
+
+        for (int i = 0; i < count; i++) {
+            long position = index + i;
+            int slot = (int) position & mask;
+            // the consumer of the previous lap may still be reading this slot
+            awaitSequence(slot, position);
+            buffer[slot] = values[offset + i];
+            SEQUENCE.setRelease(sequences, slot, position + 1);
+        }
+        return count;
+    }
+
+    @Override
+    public int drainTo(int[] target, int offset, int max) {
+        long index;
+        int count;
+        while (true) {
+            index = lvConsumerIndex();
+            long available = lvProducerIndex() - index;
+            count = (int) Math.min(max, available);
+            if (count <= 0)
+                return 0;
+            if (casConsumerIndex(index, index + count))
+                break;
+        }
+
+        for (int i = 0; i < count; i++) {
+            long position = index + i;
+            int slot = (int) position & mask;
+            // the producer that claimed this slot may still be writing it
+            awaitSequence(slot, position + 1);
+            target[offset + i] = buffer[slot];
+            SEQUENCE.setRelease(sequences, slot, position + buffer.length);
+        }
+        return count;
+    }
+
+    // Waits for a peer that already claimed `slot` to finish with it
+    private void awaitSequence(int slot, long sequence) {
+        for (int spins = 0; (long) SEQUENCE.getAcquire(sequences, slot) != sequence; spins++) {
+            if (spins < 64)
+                Thread.onSpinWait();
+            else
+                Thread.yield(); // the peer may have been descheduled
+        }
+    }
+
+    @Override
+    public int size() {
+        return size(capacity);
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+}
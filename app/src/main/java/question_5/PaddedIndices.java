@@ -0,0 +1,120 @@
+package question_5;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/// Producer and consumer sequence counters for the ring buffers, each on its
+/// own cache line.
+///
+/// The JVM lays out superclass fields before subclass fields, so padding is
+/// spread over a small class hierarchy (IndexPad0 -> ProducerIndex ->
+/// IndexPad1 -> ConsumerIndex -> PaddedIndices) to stop field reordering
+/// from putting the two hot counters next to each other. Each side also gets
+/// a plain cached copy of the other side's counter, which the single-producer
+/// and single-consumer buffers use to avoid reading the shared line on every
+/// operation.
+///
+/// Accessor prefixes follow the usual convention: lv = load with acquire
+/// semantics, lp = cheap (opaque) load, so = store with release semantics.
+abstract class PaddedIndices extends ConsumerIndex {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p28, p29, p2a, p2b, p2c, p2d, p2e, p2f;
+
+    /// Smallest power of two that is at least `capacity`.
+    static int powerOfTwo(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        return capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /// Queued values, clamped to what a snapshot of the two counters allows.
+    final int size(int capacity) {
+        long consumer = lvConsumerIndex();
+        while (true) {
+            long producer = lvProducerIndex();
+            long after = lvConsumerIndex();
+            if (after == consumer)
+                return (int) Math.max(0, Math.min(capacity, producer - consumer));
+            consumer = after;
+        }
+    }
+}
+
+abstract class IndexPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p0a, p0b, p0c, p0d, p0e, p0f;
+}
+
+abstract class ProducerIndex extends IndexPad0 {
+    private static final VarHandle PRODUCER_INDEX;
+
+    static {
+        try {
+            PRODUCER_INDEX = MethodHandles.lookup()
+                    .findVarHandle(ProducerIndex.class, "producerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long producerIndex;
+
+    /// Producer-side cache of how far it may write (single producer only).
+    long producerLimit;
+
+    final long lvProducerIndex() {
+        return (long) PRODUCER_INDEX.getAcquire(this);
+    }
+
+    final long lpProducerIndex() {
+        return (long) PRODUCER_INDEX.getOpaque(this);
+    }
+
+    final void soProducerIndex(long value) {
+        PRODUCER_INDEX.setRelease(this, value);
+    }
+
+    final boolean casProducerIndex(long expected, long value) {
+        return PRODUCER_INDEX.compareAndSet(this, expected, value);
+    }
+}
+
+abstract class IndexPad1 extends ProducerIndex {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+    long p18, p19, p1a, p1b, p1c, p1d, p1e, p1f;
+}
+
+abstract class ConsumerIndex extends IndexPad1 {
+    private static final VarHandle CONSUMER_INDEX;
+
+    static {
+        try {
+            CONSUMER_INDEX = MethodHandles.lookup()
+                    .findVarHandle(ConsumerIndex.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile long consumerIndex;
+
+    /// Consumer-side cache of the last producer index seen (single consumer only).
+    long consumerLimit;
+
+    final long lvConsumerIndex() {
+        return (long) CONSUMER_INDEX.getAcquire(this);
+    }
+
+    final long lpConsumerIndex() {
+        return (long) CONSUMER_INDEX.getOpaque(this);
+    }
+
+    final void soConsumerIndex(long value) {
+        CONSUMER_INDEX.setRelease(this, value);
+    }
+
+    final boolean casConsumerIndex(long expected, long value) {
+        return CONSUMER_INDEX.compareAndSet(this, expected, value);
+    }
+}
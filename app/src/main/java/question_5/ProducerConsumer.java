@@ -1,19 +1,38 @@
 package question_5;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class ProducerConsumer {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
+        // "scale ..." runs the N x M throughput/latency mode instead of the demo
+        if (args.length > 0 && args[0].equals("scale")) {
+            ScalingMode.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // "durable <dir>" queues through memory-mapped files that survive restarts
+        if (args.length > 1 && args[0].equals("durable")) {
+            ProducerConsumer demo = new ProducerConsumer();
+            try {
+                MappedIntQueue queue = MappedIntQueue.open(Paths.get(args[1]));
+                System.out.println("Resuming with " + queue.size() + " queued values");
+                demo.run(demo.new Buffer(queue, WaitStrategy.timedPark(1_000_000)));
+            } catch (IOException e) {
+                System.err.println("Could not open durable queue: " + e.getMessage());
+            }
+            return;
+        }
         new ProducerConsumer().run();
     }
 
     public void run() {
-        Buffer buffer = new Buffer();
+        run(new Buffer());
+    }
+
+    public void run(Buffer buffer) {
         ExecutorService executor = Executors.newFixedThreadPool(2);
         executor.execute(new Producer(buffer));
         executor.execute(new Consumer(buffer));
@@ -71,48 +90,84 @@ public class ProducerConsumer {
     public class Buffer {
 
         private static final int CAPACITY = 1;
-        private LinkedList<Integer> queue = new LinkedList<>();
 
-        private Lock lock = new ReentrantLock();
-        private Condition notEmpty = lock.newCondition();
-        private Condition notFull = lock.newCondition();
+        private final IntQueue queue;
+        private final WaitStrategy waitStrategy;
 
-        public void produce(int value) {
-            lock.lock();
-            try {
-                while (queue.size() == CAPACITY) {
-                    System.out.println("Wait for notFull condition");
-                    notFull.await();
-                }
+        public Buffer() {
+            this(new MpmcIntRingBuffer(CAPACITY), WaitStrategy.spinThenPark(100, 100, 50_000));
+        }
 
-                queue.offer(value);
-                notEmpty.signal();
+        /// Use an SpscIntRingBuffer only when there is a single producer and a
+        /// single consumer thread.
+        public Buffer(IntQueue queue, WaitStrategy waitStrategy) {
+            this.queue = queue;
+            this.waitStrategy = waitStrategy;
+        }
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } finally {
-                lock.unlock();
+        public void produce(int value) {
+            int attempt = 0;
+            while (!queue.offer(value)) {
+                if (!await(attempt++))
+                    return; // interrupted while the buffer was full
             }
         }
 
-        public int consume() {
-            int value = 0;
-            lock.lock();
-            try {
-                while (queue.isEmpty()) {
-                    System.out.println("\t\t\tWait for notEmpty condition");
-                    notEmpty.await();
+        /// Produces every value, in order, moving as many as fit per step.
+        public void produceAll(int[] values) {
+            produceAll(values, 0, values.length);
+        }
+
+        public void produceAll(int[] values, int offset, int length) {
+            int attempt = 0;
+            while (length > 0) {
+                int added = queue.offerAll(values, offset, length);
+                if (added > 0) {
+                    offset += added;
+                    length -= added;
+                    attempt = 0;
+                } else if (!await(attempt++)) {
+                    return; // interrupted while the buffer was full
                 }
+            }
+        }
 
-                value = queue.remove();
-                notFull.signal();
+        public int consume() {
+            int attempt = 0;
+            long value;
+            while ((value = queue.poll()) == IntQueue.EMPTY) {
+                if (!await(attempt++))
+                    return 0; // interrupted while the buffer was empty
+            }
+            return (int) value;
+        }
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } finally {
-                lock.unlock();
+        /// Waits until at least one value is available, then moves up to `max`
+        /// values into `target`. Returns the number moved (0 if interrupted, or
+        /// at once if there is no room to fill).
+        public int drainTo(int[] target, int max) {
+            int limit = Math.min(max, target.length);
+            if (limit <= 0)
+                return 0; // nothing could ever be moved, so do not wait for a value
+            int attempt = 0;
+            int count;
+            while ((count = queue.drainTo(target, 0, limit)) == 0) {
+                if (!await(attempt++))
+                    return 0; // interrupted while the buffer was empty
             }
-            return value;
+            return count;
+        }
+
+        public int capacity() {
+            return queue.capacity();
+        }
+
+        // Lets the wait strategy idle once; false if the thread was interrupted
+        private boolean await(int attempt) {
+            if (Thread.currentThread().isInterrupted())
+                return false;
+            waitStrategy.idle(attempt);
+            return true;
         }
     }
 
@@ -0,0 +1,290 @@
+package question_5;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import metrics.LatencyHistogram;
+
+/// Pushes timestamps through the ring buffers with N producers and M
+/// consumers and reports throughput and end-to-end latency.
+///
+/// Each producer enqueues System.nanoTime() (relative to the start of the
+/// run) for every item; consumers record now minus that value into their own
+/// histogram, and the histograms are merged at the end. Nothing is printed
+/// while the run is in progress. In partitioned mode every consumer owns one
+/// queue and items are routed by key, so all items with the same key reach
+/// the same consumer in order. Each batch draws its key at random from a key
+/// space of `--keys` keys shared by all producers; a small key space shows
+/// how uneven the partitions get when few keys carry the load.
+///
+/// Usage: ScalingMode [producers] [consumers] [items per producer]
+///        [--partitioned] [--keys n] [--batch n] [--capacity n]
+///        [--wait spin|yield|park|timed]
+///        [--sweep max]   (runs n producers x n consumers for n = 1, 2, 4 ... max)
+public class ScalingMode {
+    // Sent by the coordinator after the producers finish; timestamps are >= 0
+    private static final long POISON = -1;
+
+    private final int producers;
+    private final int consumers;
+    private final long itemsPerProducer;
+    private final boolean partitioned;
+    private final long keys;
+    private final int batchSize;
+    private final int capacity;
+    private final String waitStrategy;
+
+    public ScalingMode(int producers, int consumers, long itemsPerProducer, boolean partitioned, long keys,
+            int batchSize, int capacity, String waitStrategy) {
+        if (producers < 1 || consumers < 1 || keys < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Producers, consumers, keys and batch size must be positive");
+        }
+        this.producers = producers;
+        this.consumers = consumers;
+        this.itemsPerProducer = itemsPerProducer;
+        this.partitioned = partitioned;
+        this.keys = keys;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int producers = 1, consumers = 1, batch = 1, capacity = 1024, sweep = 0;
+        long items = 2_000_000, keys = 1024;
+        boolean partitioned = false;
+        String wait = "park";
+
+        int positional = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--partitioned":
+                    partitioned = true;
+                    break;
+                case "--keys":
+                    keys = Long.parseLong(args[++i]);
+                    break;
+                case "--batch":
+                    batch = Integer.parseInt(args[++i]);
+                    break;
+                case "--capacity":
+                    capacity = Integer.parseInt(args[++i]);
+                    break;
+                case "--wait":
+                    wait = args[++i];
+                    break;
+                case "--sweep":
+                    sweep = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    if (positional == 0)
+                        producers = Integer.parseInt(args[i]);
+                    else if (positional == 1)
+                        consumers = Integer.parseInt(args[i]);
+                    else
+                        items = Long.parseLong(args[i]);
+                    positional++;
+            }
+        }
+
+        if (sweep > 0) {
+            for (int threads = 1; threads <= sweep; threads *= 2) {
+                // Keep the total work constant across the sweep
+                long perProducer = Math.max(1, items / threads);
+                System.out.println(new ScalingMode(threads, threads, perProducer, partitioned, keys, batch,
+                        capacity, wait).run());
+            }
+        } else {
+            System.out.println(new ScalingMode(producers, consumers, items, partitioned, keys, batch,
+                    capacity, wait).run());
+        }
+    }
+
+    public Result run() throws InterruptedException {
+        LongQueue[] queues = new LongQueue[partitioned ? consumers : 1];
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = (producers == 1 && consumers == 1)
+                    ? new SpscLongRingBuffer(capacity)
+                    : new MpmcLongRingBuffer(capacity);
+        }
+
+        CountDownLatch ready = new CountDownLatch(producers + consumers);
+        CountDownLatch go = new CountDownLatch(1);
+        LatencyHistogram[] histograms = new LatencyHistogram[consumers];
+        long[] consumed = new long[consumers];
+        long epoch = System.nanoTime();
+
+        Thread[] producerThreads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            producerThreads[p] = new Thread(() -> {
+                ready.countDown();
+                awaitQuietly(go);
+                produce(id, queues, epoch);
+            }, "producer-" + p);
+        }
+
+        Thread[] consumerThreads = new Thread[consumers];
+        for (int c = 0; c < consumers; c++) {
+            int id = c;
+            histograms[c] = new LatencyHistogram();
+            consumerThreads[c] = new Thread(() -> {
+                ready.countDown();
+                awaitQuietly(go);
+                consumed[id] = consume(queues[partitioned ? id : 0], histograms[id], epoch);
+            }, "consumer-" + c);
+        }
+
+        for (Thread thread : producerThreads)
+            thread.start();
+        for (Thread thread : consumerThreads)
+            thread.start();
+        ready.await();
+
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread thread : producerThreads)
+            thread.join();
+
+        // One poison per consumer, queued behind every item
+        WaitStrategy idle = WaitStrategy.named(waitStrategy);
+        for (int c = 0; c < consumers; c++) {
+            LongQueue queue = queues[partitioned ? c : 0];
+            for (int attempt = 0; !queue.offer(POISON); attempt++)
+                idle.idle(attempt);
+        }
+        for (Thread thread : consumerThreads)
+            thread.join();
+        long elapsed = System.nanoTime() - start;
+
+        LatencyHistogram latency = new LatencyHistogram();
+        long total = 0;
+        for (int c = 0; c < consumers; c++) {
+            latency.add(histograms[c]);
+            total += consumed[c];
+        }
+        // Throughput means nothing if items were lost or delivered twice
+        if (total != producers * itemsPerProducer) {
+            throw new IllegalStateException("Consumed " + total + " items, expected "
+                    + producers * itemsPerProducer);
+        }
+        return new Result(this, total, elapsed, latency);
+    }
+
+    private void produce(int id, LongQueue[] queues, long epoch) {
+        WaitStrategy idle = WaitStrategy.named(waitStrategy);
+        long[] batch = new long[batchSize];
+        SplittableRandom random = new SplittableRandom(id);
+
+        for (long sent = 0; sent < itemsPerProducer;) {
+            int count = (int) Math.min(batchSize, itemsPerProducer - sent);
+            // A batch shares one key, hence one partition
+            LongQueue queue = queues[partitioned ? partitionOf(random.nextLong(keys), queues.length) : 0];
+
+            long now = System.nanoTime() - epoch;
+            for (int i = 0; i < count; i++)
+                batch[i] = now;
+
+            int offset = 0;
+            for (int attempt = 0; offset < count;) {
+                int added = count == 1
+                        ? (queue.offer(batch[0]) ? 1 : 0)
+                        : queue.offerAll(batch, offset, count - offset);
+                if (added > 0) {
+                    offset += added;
+                    attempt = 0;
+                } else {
+                    idle.idle(attempt++);
+                }
+            }
+            sent += count;
+        }
+    }
+
+    private long consume(LongQueue queue, LatencyHistogram histogram, long epoch) {
+        WaitStrategy idle = WaitStrategy.named(waitStrategy);
+        long[] batch = new long[batchSize];
+        long consumed = 0;
+
+        for (int attempt = 0;;) {
+            int count = queue.drainTo(batch, 0, batch.length);
+            if (count == 0) {
+                idle.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+
+            long now = System.nanoTime() - epoch;
+            for (int i = 0; i < count; i++) {
+                if (batch[i] == POISON) {
+                    // Anything after our poison belongs to another consumer
+                    requeue(queue, batch, i + 1, count, idle);
+                    return consumed;
+                }
+                histogram.record(now - batch[i]);
+                consumed++;
+            }
+        }
+    }
+
+    // Puts back values drained past our poison (only possible with a shared queue)
+    private static void requeue(LongQueue queue, long[] batch, int from, int to, WaitStrategy idle) {
+        for (int attempt = 0; from < to;) {
+            int added = queue.offerAll(batch, from, to - from);
+            if (added > 0)
+                from += added;
+            else
+                idle.idle(attempt++);
+        }
+    }
+
+    private static int partitionOf(long key, int partitions) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) ((hash >>> 32) % partitions);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /// Outcome of one run.
+    public static class Result {
+        private final ScalingMode mode;
+        private final long items;
+        private final long elapsedNanos;
+        private final LatencyHistogram latency;
+
+        Result(ScalingMode mode, long items, long elapsedNanos, LatencyHistogram latency) {
+            this.mode = mode;
+            this.items = items;
+            this.elapsedNanos = elapsedNanos;
+            this.latency = latency;
+        }
+
+        public long getItems() {
+            return items;
+        }
+
+        public double getItemsPerSecond() {
+            return items * 1e9 / elapsedNanos;
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("P=%-2d C=%-2d %-22s batch=%-4d %,12.0f items/s  latency p50=%,d ns  p99=%,d ns"
+                    + "  p99.9=%,d ns  max=%,d ns",
+                    mode.producers, mode.consumers,
+                    mode.partitioned ? "partitioned keys=" + mode.keys : "shared",
+                    mode.batchSize, getItemsPerSecond(), latency.getPercentile(0.5), latency.getPercentile(0.99),
+                    latency.getPercentile(0.999), latency.getPercentile(1.0));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package question_5;
+
+/// Single-producer, single-consumer ring buffer of primitive ints.
+///
+/// Exactly one thread may call offer() and exactly one (possibly different)
+/// thread may call poll(). Each side only writes its own counter, publishing
+/// it with a release store, and re-reads the other side's counter only when
+/// its cached copy says the buffer looks full (or empty). No locks, no CAS,
+/// no boxing.
+public class SpscIntRingBuffer extends PaddedIndices implements IntQueue {
+    private final int[] buffer;
+    private final int mask;
+
+    /// `capacity` is rounded up to a power of two.
+    public SpscIntRingBuffer(int capacity) {
+        int size = powerOfTwo(capacity);
+        this.buffer = new int[size];
+        this.mask = size - 1;
+    }
+
+    @Override
+    public boolean offer(int value) {
+        long index = lpProducerIndex();
+        if (index >= producerLimit) {
+            producerLimit = lvConsumerIndex() + buffer.length;
+            if (index >= producerLimit)
+                return false; // full
+        }
+        buffer[(int) index & mask] = value;
+        soProducerIndex(index + 1);
+        return true;
+    }
+
+    @Override
+    public long poll() {
+        long index = lpConsumerIndex();
+        if (index >= consumerLimit) {
+            consumerLimit = lvProducerIndex();
+            if (index >= consumerLimit)
+                return EMPTY;
+        }
+        int value = buffer[(int) index & mask];
+        soConsumerIndex(index + 1);
+        return value;
+    }
+
+    @Override
+    public int offerAll(int[] values, int offset, int length) {
+        long index = lpProducerIndex();
+        if (index + length > producerLimit)
+            producerLimit = lvConsumerIndex() + buffer.length;
+        int count = (int) Math.min(length, producerLimit - index);
+        if (count <= 0)
+            return 0;
+
+        // Copy in at most two runs (before and after the wrap), publish once
+        int slot = (int) index & mask;
+        int firstRun = Math.min(count, buffer.length - slot);
+        System.arraycopy(values, offset, buffer, slot, firstRun);
+        System.arraycopy(values, offset + firstRun, buffer, 0, count - firstRun);
+        soProducerIndex(index + count);
+        return count;
+    }
+
+    @Override
+    public int drainTo(int[] target, int offset, int max) {
+        long index = lpConsumerIndex();
+        if (index + max > consumerLimit)
+            consumerLimit = lvProducerIndex();
+        int count = (int) Math.min(max, consumerLimit - index);
+        if (count <= 0)
+            return 0;
+
+        int slot = (int) index & mask;
+        int firstRun = Math.min(count, buffer.length - slot);
+        System.arraycopy(buffer, slot, target, offset, firstRun);
+        System.arraycopy(buffer, 0, target, offset + firstRun, count - firstRun);
+        soConsumerIndex(index + count);
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return size(buffer.length);
+    }
+
+    @Override
+    public int capacity() {
+        return buffer.length;
+    }
+}
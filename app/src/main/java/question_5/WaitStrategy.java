@@ -0,0 +1,63 @@
+package question_5;
+
+import java.util.concurrent.locks.LockSupport;
+
+/// What a producer or consumer does while the buffer is full or empty.
+///
+/// `attempt` counts the consecutive failed tries, starting at 0, so stateless
+/// strategies can still back off. The choice trades CPU for hand-off latency:
+/// busy-spinning reacts within nanoseconds but burns a core per waiting
+/// thread, parking is cheap on CPU but takes tens of microseconds to notice
+/// new data.
+@FunctionalInterface
+public interface WaitStrategy {
+
+    void idle(int attempt);
+
+    /// Spin on the CPU forever. Lowest latency; needs a core per waiting thread.
+    static WaitStrategy busySpin() {
+        return attempt -> Thread.onSpinWait();
+    }
+
+    /// Give the core away on every failed attempt.
+    static WaitStrategy yielding() {
+        return attempt -> Thread.yield();
+    }
+
+    /// Spin `spins` times, yield `yields` times, then park for a period that
+    /// doubles from 1 us up to `maxParkNanos`.
+    static WaitStrategy spinThenPark(int spins, int yields, long maxParkNanos) {
+        return attempt -> {
+            if (attempt < spins) {
+                Thread.onSpinWait();
+            } else if (attempt < spins + yields) {
+                Thread.yield();
+            } else {
+                int shift = Math.min(attempt - spins - yields, 30);
+                LockSupport.parkNanos(Math.min(1000L << shift, maxParkNanos));
+            }
+        };
+    }
+
+    /// Park for a fixed `nanos` on every failed attempt.
+    static WaitStrategy timedPark(long nanos) {
+        return attempt -> LockSupport.parkNanos(nanos);
+    }
+
+    /// Looks a strategy up by name: "spin", "yield", "park" (spin, yield, then
+    /// park up to 100 us) or "timed" (park 50 us).
+    static WaitStrategy named(String name) {
+        switch (name) {
+            case "spin":
+                return busySpin();
+            case "yield":
+                return yielding();
+            case "park":
+                return spinThenPark(100, 100, 100_000);
+            case "timed":
+                return timedPark(50_000);
+            default:
+                throw new IllegalArgumentException("Unknown wait strategy: " + name);
+        }
+    }
+}
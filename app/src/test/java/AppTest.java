@@ -0,0 +1,23 @@
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppTest {
+
+    @Test
+    void everyCommandNamesAModuleWithAMainMethod() throws Exception {
+        for (Map.Entry<String, App.Command> entry : App.COMMANDS.entrySet()) {
+            if (entry.getKey().equals("bench"))
+                continue; // JMH is only on the jmh source set's classpath
+
+            // Not initialised, so no module starts anything
+            Class<?> module = Class.forName(entry.getValue().className, false, AppTest.class.getClassLoader());
+            Method main = module.getMethod("main", String[].class);
+            assertTrue(Modifier.isStatic(main.getModifiers()), entry.getKey());
+            assertEquals(void.class, main.getReturnType());
+        }
+    }
+}
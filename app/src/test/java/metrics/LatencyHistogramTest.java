@@ -0,0 +1,84 @@
+package metrics;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveBucketsOfTheirOwn() {
+        for (long value = 0; value < 16; value++) {
+            assertEquals(value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.upperBoundOf((int) value));
+        }
+        // First power of two with a shift: buckets are two values wide
+        assertEquals(16, LatencyHistogram.bucketOf(16));
+        assertEquals(31, LatencyHistogram.bucketOf(31));
+        assertEquals(32, LatencyHistogram.bucketOf(32));
+        assertEquals(32, LatencyHistogram.bucketOf(33));
+        assertEquals(33, LatencyHistogram.bucketOf(34));
+        assertEquals(33, LatencyHistogram.upperBoundOf(32));
+    }
+
+    @Test
+    void bucketsTileTheWholeRange() {
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(last));
+        for (int bucket = 1; bucket <= last; bucket++) {
+            long low = LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+            long high = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(low <= high, "bucket " + bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(low), "lowest value of bucket " + bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(high), "highest value of bucket " + bucket);
+            // Never wider than 1/16 of the values it holds
+            assertTrue(high - low < Math.max(1, low / 16), "width of bucket " + bucket);
+        }
+    }
+
+    @Test
+    void percentilesUseTheNearestRank() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(0.5));
+        for (int value = 1; value <= 10; value++)
+            histogram.record(value);
+
+        assertEquals(1, histogram.getPercentile(0.0));
+        assertEquals(1, histogram.getPercentile(0.1));
+        assertEquals(2, histogram.getPercentile(0.11));
+        assertEquals(3, histogram.getPercentile(0.3));
+        assertEquals(5, histogram.getPercentile(0.5));
+        assertEquals(6, histogram.getPercentile(0.51));
+        assertEquals(7, histogram.getPercentile(0.7));
+        assertEquals(10, histogram.getPercentile(0.99));
+        assertEquals(10, histogram.getPercentile(1.0));
+
+        // Exact ranks stay exact at larger counts too: 14 ones, then twos
+        histogram.reset();
+        for (int i = 0; i < 100; i++)
+            histogram.record(i < 14 ? 1 : 2);
+        assertEquals(1, histogram.getPercentile(0.14)); // 0.14 * 100 is just above 14
+        assertEquals(2, histogram.getPercentile(0.15));
+    }
+
+    @Test
+    void addMergesCounts() {
+        LatencyHistogram a = new LatencyHistogram();
+        LatencyHistogram b = new LatencyHistogram();
+        for (int i = 0; i < 3; i++)
+            a.record(5);
+        b.record(-1); // counted as 0
+        b.record(1000);
+
+        a.add(b);
+        assertEquals(5, a.getCount());
+        assertEquals(2, b.getCount()); // the source is left as it was
+        assertEquals(0, a.getPercentile(0.2));
+        assertEquals(5, a.getPercentile(0.8));
+        assertEquals(LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(1000)), a.getPercentile(1.0));
+
+        a.add(new LatencyHistogram());
+        assertEquals(5, a.getCount());
+        a.reset();
+        assertEquals(0, a.getCount());
+    }
+}
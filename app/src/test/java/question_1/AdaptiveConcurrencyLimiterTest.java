@@ -0,0 +1,130 @@
+package question_1;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long MS = 1_000_000;
+
+    @Test
+    void growsWhileLatencyStaysFlat() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        long now = 0;
+        for (int round = 0; round < 200; round++)
+            now = fillAndRelease(limiter, 10 * MS, now, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(10, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void backsOffOncePerRoundTrip() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10);
+        long now = fillAndRelease(limiter, 10 * MS, 0, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(10, limiter.getLimit());
+
+        // Latency five times the baseline: every slot reports it, one decrease
+        now = fillAndRelease(limiter, 50 * MS, now + 50 * MS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(9, limiter.getLimit());
+
+        // A refused request a round trip later halves it
+        now = fillAndRelease(limiter, 10 * MS, now + 50 * MS, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+        assertEquals(4, limiter.getLimit());
+
+        // Ignored outcomes change nothing, and the floor holds
+        fillAndRelease(limiter, 500 * MS, now + 50 * MS, AdaptiveConcurrencyLimiter.Outcome.IGNORED);
+        assertEquals(4, limiter.getLimit());
+        for (int i = 0; i < 10; i++)
+            now = fillAndRelease(limiter, 10 * MS, now + 50 * MS, AdaptiveConcurrencyLimiter.Outcome.DROPPED);
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void hostsAreJudgedAgainstTheirOwnBaseline() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 32);
+        String[] hosts = { "near", "region", "far", "other-continent" };
+        long[] latencies = { 40 * MS, 120 * MS, 300 * MS, 800 * MS };
+
+        // Each host is steady, so the spread between them is no reason to back
+        // off; a round lasts as long as its slowest request
+        long now = 0;
+        for (int round = 0; round < 500; round++)
+            now = fillAndRelease(limiter, hosts, latencies, now + 800 * MS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(32, limiter.getLimit());
+
+        // One host slowing down to five times its baseline still counts
+        latencies[0] = 200 * MS;
+        fillAndRelease(limiter, hosts, latencies, now + 800 * MS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertTrue(limiter.getLimit() < 32);
+    }
+
+    @Test
+    void eachHostBacksOffOncePerItsOwnRoundTrip() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10);
+        String[] hosts = { "near", "far" };
+        long now = fillAndRelease(limiter, hosts, new long[] { 10 * MS, 500 * MS }, 0,
+                AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(10, limiter.getLimit());
+
+        // The near host slows down: one decrease per its 10 ms round trip
+        now += 1000 * MS;
+        limiter.acquire("near");
+        limiter.release("near", 50 * MS, now, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        limiter.acquire("near");
+        limiter.release("near", 50 * MS, now + 5 * MS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(9, limiter.getLimit());
+
+        // 20 ms later the far host slows down too; the near host's decrease
+        // does not count against the far host's 500 ms round trip
+        limiter.acquire("far");
+        limiter.release("far", 2500 * MS, now + 20 * MS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(8, limiter.getLimit());
+        limiter.acquire("far");
+        limiter.release("far", 2500 * MS, now + 100 * MS, AdaptiveConcurrencyLimiter.Outcome.SUCCESS);
+        assertEquals(8, limiter.getLimit());
+    }
+
+    @Test
+    void acquireWaitsForAFreeSlot() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+
+        CountDownLatch acquired = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                limiter.acquire().ignore();
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+
+        assertFalse(acquired.await(50, TimeUnit.MILLISECONDS));
+        first.success();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, limiter.getInFlight());
+        assertThrows(IllegalStateException.class, first::success);
+    }
+
+    // Takes every slot, then completes them all with the same latency
+    private static long fillAndRelease(AdaptiveConcurrencyLimiter limiter, long latency, long now,
+            AdaptiveConcurrencyLimiter.Outcome outcome) throws InterruptedException {
+        return fillAndRelease(limiter, new String[] { "" }, new long[] { latency }, now, outcome);
+    }
+
+    // Takes every slot, then completes slot i as a request to hosts[i % n]
+    // that took latencies[i % n]
+    private static long fillAndRelease(AdaptiveConcurrencyLimiter limiter, String[] hosts, long[] latencies,
+            long now, AdaptiveConcurrencyLimiter.Outcome outcome) throws InterruptedException {
+        int slots = limiter.getLimit();
+        for (int i = 0; i < slots; i++)
+            limiter.acquire(hosts[i % hosts.length]);
+        for (int i = 0; i < slots; i++)
+            limiter.release(hosts[i % hosts.length], latencies[i % hosts.length], now + i, outcome);
+        return now + slots;
+    }
+}
@@ -0,0 +1,77 @@
+package question_2;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetAnalyticsTest {
+
+    @Test
+    void heatmapMatchesASequentialCount() {
+        VehicleTracker tracker = grid(200_000);
+        FleetSnapshot snapshot = tracker.snapshot();
+
+        int[][] heatmap = FleetAnalytics.heatmap(snapshot, -50, -50, 64, 20, 10);
+
+        int[][] expected = new int[10][20];
+        for (Point p : tracker.getLocations().values()) {
+            int column = Math.floorDiv(p.getX() + 50, 64);
+            int row = Math.floorDiv(p.getY() + 50, 64);
+            if (column >= 0 && column < 20 && row >= 0 && row < 10)
+                expected[row][column]++;
+        }
+        assertArrayEquals(expected, heatmap);
+    }
+
+    @Test
+    void snapshotsFollowUpdatesAndKeepNegativeCoordinates() {
+        VehicleTracker tracker = grid(4);
+        FleetSnapshot before = tracker.snapshot();
+
+        tracker.setLocation("V0", -3, -4);
+        FleetSnapshot after = tracker.snapshot();
+
+        int slot = 0;
+        while (!after.getId(slot).equals("V0"))
+            slot++;
+        assertEquals(-3, after.getX(slot));
+        assertEquals(-4, after.getY(slot));
+        assertEquals(0, before.getX(slot));
+
+        // V0 moved from (0, 0) by 5; the other three stood still
+        assertEquals(5.0 / 4, FleetAnalytics.averageDisplacement(before, after), 1e-9);
+    }
+
+    @Test
+    void regionCountsCountOverlapsOnce() {
+        VehicleTracker tracker = grid(10_000);
+        List<Geofence> regions = List.of(
+                new RectangleFence("left", 0, 0, 49, 99),
+                new RectangleFence("all", 0, 0, 99, 99),
+                new PolygonFence("triangle", new int[] { 0, 99, 0 }, new int[] { 0, 0, 99 }));
+
+        int[] counts = FleetAnalytics.regionCounts(tracker.snapshot(), regions);
+
+        int[] expected = new int[regions.size()];
+        for (Point p : tracker.getLocations().values()) {
+            for (int i = 0; i < regions.size(); i++) {
+                if (regions.get(i).contains(p.getX(), p.getY()))
+                    expected[i]++;
+            }
+        }
+        assertArrayEquals(expected, counts);
+        assertEquals(5_000, counts[0]);
+        assertEquals(10_000, counts[1]);
+    }
+
+    // Vehicles V0..V(n-1) on a 100-wide grid starting at the origin
+    private static VehicleTracker grid(int vehicles) {
+        Map<String, Point> locations = new HashMap<>();
+        for (int i = 0; i < vehicles; i++)
+            locations.put("V" + i, new Point(i % 100, i / 100));
+        return new VehicleTracker(locations);
+    }
+}
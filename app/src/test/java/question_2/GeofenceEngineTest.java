@@ -0,0 +1,274 @@
+package question_2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeofenceEngineTest {
+    // Coordinates are drawn from [-RANGE, RANGE], so random points regularly
+    // land on vertices and edges
+    private static final int RANGE = 40;
+
+    @Test
+    void concavePolygonsMatchTheirRectangles() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int shape = 0; shape < 300; shape++) {
+            LShape l = LShape.random("L" + shape, random);
+            for (int x = l.fence.getMinX() - 1; x <= l.fence.getMaxX() + 1; x++) {
+                for (int y = l.fence.getMinY() - 1; y <= l.fence.getMaxY() + 1; y++)
+                    assertEquals(l.contains(x, y), l.fence.contains(x, y), l + " at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void trianglesMatchTheCrossProductTest() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (int shape = 0; shape < 300; shape++) {
+            int[] xs = new int[3];
+            int[] ys = new int[3];
+            do {
+                for (int i = 0; i < 3; i++) {
+                    xs[i] = random.nextInt(-RANGE, RANGE + 1);
+                    ys[i] = random.nextInt(-RANGE, RANGE + 1);
+                }
+            } while (cross(xs[0], ys[0], xs[1], ys[1], xs[2], ys[2]) == 0);
+            PolygonFence fence = new PolygonFence("T" + shape, xs, ys);
+
+            for (int x = fence.getMinX() - 1; x <= fence.getMaxX() + 1; x++) {
+                for (int y = fence.getMinY() - 1; y <= fence.getMaxY() + 1; y++) {
+                    long d1 = cross(xs[0], ys[0], xs[1], ys[1], x, y);
+                    long d2 = cross(xs[1], ys[1], xs[2], ys[2], x, y);
+                    long d3 = cross(xs[2], ys[2], xs[0], ys[0], x, y);
+                    boolean negative = d1 < 0 || d2 < 0 || d3 < 0;
+                    boolean positive = d1 > 0 || d2 > 0 || d3 > 0;
+                    assertEquals(!(negative && positive), fence.contains(x, y),
+                            Arrays.toString(xs) + Arrays.toString(ys) + " at " + x + "," + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void polygonsNeedThreeVerticesWithBothCoordinates() {
+        int[] none = {};
+        int[] two = { 0, 5 };
+        int[] three = { 0, 5, 0 };
+        for (int[][] vertices : new int[][][] { { none, none }, { two, two }, { three, two }, { two, three } }) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> new PolygonFence("bad", vertices[0], vertices[1]));
+            assertTrue(e.getMessage().contains("3 vertices"), e.getMessage());
+        }
+    }
+
+    @Test
+    void engineMatchesABruteForceScan() {
+        SplittableRandom random = new SplittableRandom(3);
+        Map<String, Point> initial = new HashMap<>();
+        for (int i = 0; i < 30; i++)
+            initial.put("V" + i, new Point(0, 0));
+        VehicleTracker tracker = new VehicleTracker(initial);
+        GeofenceEngine engine = GeofenceEngine.attach(tracker, 8);
+
+        // Membership as the enter and exit events describe it
+        Map<String, Set<Geofence>> reported = new ConcurrentHashMap<>();
+        engine.addListener(new GeofenceListener() {
+            @Override
+            public void onEnter(String vehicleId, Geofence fence, Point location) {
+                assertTrue(reported.computeIfAbsent(vehicleId, k -> new HashSet<>()).add(fence));
+            }
+
+            @Override
+            public void onExit(String vehicleId, Geofence fence, Point location) {
+                assertTrue(reported.get(vehicleId).remove(fence));
+            }
+        });
+
+        List<Geofence> registered = new ArrayList<>();
+        // Spans far more than MAX_CELLS_PER_FENCE cells, so it is never in the grid
+        Geofence everywhere = new RectangleFence("everywhere", -100_000, -100_000, 100_000, 100_000);
+        engine.addFence(everywhere);
+        registered.add(everywhere);
+
+        int nextId = 0;
+        for (int step = 0; step < 20_000; step++) {
+            int op = random.nextInt(100);
+            if (op < 4 || registered.size() < 5) {
+                Geofence fence = randomFence("F" + nextId++, random);
+                engine.addFence(fence);
+                registered.add(fence);
+            } else if (op < 7) {
+                Geofence fence = registered.remove(random.nextInt(registered.size()));
+                engine.removeFence(fence.getId());
+            } else {
+                String vehicle = "V" + random.nextInt(30);
+                int x = random.nextInt(-RANGE, RANGE + 1);
+                int y = random.nextInt(-RANGE, RANGE + 1);
+                tracker.setLocation(vehicle, x, y);
+
+                Set<Geofence> expected = new HashSet<>();
+                for (Geofence fence : registered) {
+                    if (fence.contains(x, y))
+                        expected.add(fence);
+                }
+                assertEquals(expected, new HashSet<>(Arrays.asList(engine.getFencesContaining(vehicle))),
+                        vehicle + " at " + x + "," + y);
+
+                // Removed fences are dropped without an exit event
+                Set<Geofence> fromEvents = new HashSet<>(reported.getOrDefault(vehicle, Set.of()));
+                fromEvents.retainAll(registered);
+                assertEquals(expected, fromEvents);
+            }
+        }
+        assertEquals(registered.size(), engine.getFenceCount());
+    }
+
+    @Test
+    void racingUpdatesSettleOnTheStoredPosition() throws InterruptedException {
+        VehicleTracker tracker = new VehicleTracker(Map.of("V", new Point(50, 50)));
+        GeofenceEngine engine = GeofenceEngine.attach(tracker, 8);
+        Geofence depot = new RectangleFence("depot", 0, 0, 9, 9);
+        engine.addFence(depot);
+
+        AtomicInteger inside = new AtomicInteger();
+        engine.addListener(new GeofenceListener() {
+            @Override
+            public void onEnter(String vehicleId, Geofence fence, Point location) {
+                inside.incrementAndGet();
+            }
+
+            @Override
+            public void onExit(String vehicleId, Geofence fence, Point location) {
+                inside.decrementAndGet();
+            }
+        });
+
+        // The window is between the tracker storing a position and the engine
+        // evaluating it, so start both writers together and end the race soon
+        for (int round = 0; round < 2000; round++) {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread in = new Thread(() -> moveRepeatedly(tracker, start, 5));
+            Thread out = new Thread(() -> moveRepeatedly(tracker, start, 50));
+            in.start();
+            out.start();
+            start.countDown();
+            in.join();
+            out.join();
+
+            Point stored = tracker.getLocation("V");
+            int expected = depot.contains(stored.getX(), stored.getY()) ? 1 : 0;
+            assertEquals(expected, engine.getFencesContaining("V").length, "round " + round);
+            assertEquals(expected, inside.get(), "round " + round);
+        }
+    }
+
+    private static void moveRepeatedly(VehicleTracker tracker, CountDownLatch start, int coordinate) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        for (int i = 0; i < 20; i++)
+            tracker.setLocation("V", coordinate, coordinate);
+    }
+
+    private static Geofence randomFence(String id, SplittableRandom random) {
+        switch (random.nextInt(3)) {
+            case 0: {
+                int x1 = random.nextInt(-RANGE, RANGE + 1), x2 = random.nextInt(-RANGE, RANGE + 1);
+                int y1 = random.nextInt(-RANGE, RANGE + 1), y2 = random.nextInt(-RANGE, RANGE + 1);
+                return new RectangleFence(id, Math.min(x1, x2), Math.min(y1, y2), Math.max(x1, x2), Math.max(y1, y2));
+            }
+            case 1:
+                return LShape.random(id, random).fence;
+            default: {
+                int[] xs = new int[3];
+                int[] ys = new int[3];
+                for (int i = 0; i < 3; i++) {
+                    xs[i] = random.nextInt(-RANGE, RANGE + 1);
+                    ys[i] = random.nextInt(-RANGE, RANGE + 1);
+                }
+                return new PolygonFence(id, xs, ys);
+            }
+        }
+    }
+
+    private static long cross(long ax, long ay, long bx, long by, long px, long py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    /// An L-shaped (concave) hexagon, mirrored and walked from a random vertex
+    /// in a random direction, together with the two rectangles it is the union of.
+    private static final class LShape {
+        final PolygonFence fence;
+        final int[][] rectangles; // minX, minY, maxX, maxY
+
+        private LShape(PolygonFence fence, int[][] rectangles) {
+            this.fence = fence;
+            this.rectangles = rectangles;
+        }
+
+        static LShape random(String id, SplittableRandom random) {
+            int[] x = threeSorted(random);
+            int[] y = threeSorted(random);
+            int[] xs = { x[0], x[2], x[2], x[1], x[1], x[0] };
+            int[] ys = { y[0], y[0], y[1], y[1], y[2], y[2] };
+            int[][] rectangles = { { x[0], y[0], x[2], y[1] }, { x[0], y[0], x[1], y[2] } };
+
+            int sx = random.nextBoolean() ? 1 : -1;
+            int sy = random.nextBoolean() ? 1 : -1;
+            for (int[] r : rectangles) {
+                int minX = Math.min(r[0] * sx, r[2] * sx), maxX = Math.max(r[0] * sx, r[2] * sx);
+                int minY = Math.min(r[1] * sy, r[3] * sy), maxY = Math.max(r[1] * sy, r[3] * sy);
+                r[0] = minX;
+                r[1] = minY;
+                r[2] = maxX;
+                r[3] = maxY;
+            }
+
+            int start = random.nextInt(6);
+            int direction = random.nextBoolean() ? 1 : 5;
+            int[] px = new int[6];
+            int[] py = new int[6];
+            for (int i = 0, v = start; i < 6; i++, v = (v + direction) % 6) {
+                px[i] = xs[v] * sx;
+                py[i] = ys[v] * sy;
+            }
+            return new LShape(new PolygonFence(id, px, py), rectangles);
+        }
+
+        boolean contains(int x, int y) {
+            for (int[] r : rectangles) {
+                if (x >= r[0] && x <= r[2] && y >= r[1] && y <= r[3])
+                    return true;
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.deepToString(rectangles);
+        }
+
+        // Three distinct values in [-RANGE, RANGE], ascending
+        private static int[] threeSorted(SplittableRandom random) {
+            int[] values;
+            do {
+                values = random.ints(3, -RANGE, RANGE + 1).sorted().toArray();
+            } while (values[0] == values[1] || values[1] == values[2]);
+            return values;
+        }
+    }
+}
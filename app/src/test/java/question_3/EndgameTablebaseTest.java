@@ -0,0 +1,89 @@
+package question_3;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameTablebaseTest {
+
+    @Test
+    void rankAndUnrankAreInverse() {
+        int[] pits = new int[12];
+        int[] decoded = new int[12];
+        for (int seeds = 0; seeds <= 4; seeds++) {
+            Arrays.fill(pits, 0);
+            pits[11] = seeds;
+            long first = seeds == 0 ? 0 : EndgameTablebase.positionsUpTo(seeds - 1);
+            for (long rank = 0; rank < EndgameTablebase.positionsWith(seeds); rank++) {
+                assertEquals(first + rank, EndgameTablebase.indexOf(new OwareState(pits, 0, 0), 1, seeds));
+                EndgameTablebase.unrank(rank, seeds, decoded);
+                assertArrayEquals(pits, decoded);
+                EndgameTablebase.next(pits);
+            }
+        }
+    }
+
+    @Test
+    void valuesMatchExhaustiveSearch() throws Exception {
+        Path file = Files.createTempFile("oware", ".tb");
+        try {
+            TablebaseGenerator generator = new TablebaseGenerator(5);
+            generator.build();
+            generator.write(file);
+            EndgameTablebase tablebase = EndgameTablebase.open(file);
+
+            // Shared by all samples: they revisit the same few thousand positions
+            Map<List<Long>, Integer> memo = new HashMap<>();
+            Random random = new Random(7);
+            for (int i = 0; i < 200; i++) {
+                int[] pits = new int[12];
+                int seeds = 1 + random.nextInt(5);
+                for (int s = 0; s < seeds; s++)
+                    pits[random.nextInt(12)]++;
+                OwareState state = new OwareState(pits, 0, 0);
+                int player = 1 + random.nextInt(2);
+
+                assertEquals(negamax(state, player, 24, memo), tablebase.probe(state, player));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Plain depth-limited negamax over future gains; a horizon counts as 0.
+    // Memoized by position, player and remaining depth, which fix the value.
+    private static int negamax(OwareState state, int player, int depth, Map<List<Long>, Integer> memo) {
+        int moves = state.legalMoves(player);
+        if (moves == 0 || depth == 0)
+            return 0;
+
+        List<Long> key = List.of(state.side1(), state.side2(), (long) player << 8 | depth);
+        Integer known = memo.get(key);
+        if (known != null)
+            return known;
+
+        int best = Integer.MIN_VALUE;
+        long side1 = state.side1(), side2 = state.side2();
+        while (moves != 0) {
+            int pit = Integer.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+
+            int before = state.scoreDifference(player);
+            boolean over = state.play(player, pit);
+            int gain = state.scoreDifference(player) - before;
+            int value = over ? gain : gain - negamax(state, 3 - player, depth - 1, memo);
+            state.restore(side1, side2);
+
+            best = Math.max(best, value);
+        }
+        memo.put(key, best);
+        return best;
+    }
+}
@@ -0,0 +1,79 @@
+package question_3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameServerTest {
+
+    @Test
+    void concurrentSessionsAllMakeProgress() throws InterruptedException {
+        int sessionCount = 2000;
+        GameServer server = new GameServer();
+
+        // Hold the first turn until every session exists, so they all start together
+        CountDownLatch created = new CountDownLatch(1);
+        MovePolicy gated = (state, player) -> {
+            try {
+                created.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new GreedyCapturePolicy().chooseMove(state, player);
+        };
+
+        List<GameSession> sessions = new ArrayList<>();
+        AtomicInteger idleAtFirstFinish = new AtomicInteger(-1);
+        CountDownLatch allFinished = new CountDownLatch(sessionCount);
+        server.setOnGameOver(finished -> {
+            // The earliest game to end has taken at least 13 plies; by then
+            // every other game must have had turns too
+            if (idleAtFirstFinish.get() < 0) {
+                int idle = 0;
+                synchronized (sessions) {
+                    for (GameSession session : sessions) {
+                        if (session.getPlies() == 0)
+                            idle++;
+                    }
+                }
+                idleAtFirstFinish.compareAndSet(-1, idle);
+            }
+            allFinished.countDown();
+        });
+
+        synchronized (sessions) {
+            for (int i = 0; i < sessionCount; i++)
+                sessions.add(server.createSession(gated, new RandomPolicy()));
+        }
+        created.countDown();
+
+        assertTrue(allFinished.await(60, TimeUnit.SECONDS));
+        assertEquals(0, idleAtFirstFinish.get());
+        assertEquals(sessionCount, server.getGamesFinished());
+        assertEquals(0, server.getActiveSessions());
+        server.shutdown();
+    }
+
+    @Test
+    void invalidRemoteMovesLeaveTheSessionPlayable() {
+        GameServer server = new GameServer();
+        GameSession session = server.createSession(null, new GreedyCapturePolicy());
+
+        // 32 would wrap around to pit 0 in a plain 1 << pit check
+        assertFalse(server.submitMove(session.getId(), 1, 32));
+        assertFalse(server.submitMove(session.getId(), 1, -1));
+        assertFalse(server.submitMove(session.getId(), 1, OwareState.PITS));
+        assertFalse(server.submitMove(session.getId(), 1, 6)); // the opponent's pit
+        assertFalse(server.submitMove(session.getId(), 2, 6)); // not player 2's turn
+        assertEquals(0, session.getPlies());
+
+        assertTrue(server.submitMove(session.getId(), 1, 0));
+        assertTrue(session.getPlies() >= 1); // the automated reply may already be in
+        server.shutdown();
+    }
+}
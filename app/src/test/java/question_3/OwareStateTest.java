@@ -0,0 +1,106 @@
+package question_3;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OwareStateTest {
+
+    @Test
+    void packedMovesMatchArrayRules() {
+        Random random = new Random(42);
+        for (int game = 0; game < 2000; game++) {
+            OwareState state = new OwareState();
+            int[] pits = new int[12];
+            int[] scores = new int[3];
+            Arrays.fill(pits, 4);
+
+            int player = 1;
+            for (int ply = 0; ply < 300; ply++) {
+                int moves = state.legalMoves(player);
+                if (moves == 0)
+                    break;
+
+                // pick a random legal pit
+                int pit;
+                do {
+                    pit = random.nextInt(12);
+                } while ((moves & (1 << pit)) == 0);
+
+                boolean over = state.play(player, pit);
+                boolean expectedOver = referencePlay(pits, scores, player, pit);
+
+                assertEquals(expectedOver, over);
+                for (int i = 0; i < 12; i++)
+                    assertEquals(pits[i], state.pit(i));
+                assertEquals(scores[1], state.score(1));
+                assertEquals(scores[2], state.score(2));
+                if (over)
+                    break;
+                player = 3 - player;
+            }
+        }
+    }
+
+    @Test
+    void unmakeRestoresHash() {
+        OwareState state = new OwareState();
+        long before = state.hash(1);
+        long side1 = state.side1(), side2 = state.side2();
+        state.makeMove(1, 3);
+        assertNotEquals(before, state.hash(1));
+        state.restore(side1, side2);
+        assertEquals(before, state.hash(1));
+        assertNotEquals(state.hash(1), state.hash(2));
+    }
+
+    @Test
+    void searchTakesAnImmediateCapture() {
+        // Sowing pit 5 (one seed) lands in pit 6, which then holds 2: capture.
+        // Sowing pit 4 only moves a seed along our own side.
+        int[] pits = { 0, 0, 0, 0, 1, 1, 1, 0, 0, 0, 0, 4 };
+        OwareState state = new OwareState(pits, 0, 0);
+        AlphaBetaSearch search = new AlphaBetaSearch(50);
+        assertEquals(5, search.chooseMove(state, 1));
+        // The search must leave the caller's position untouched
+        assertEquals(1, state.pit(5));
+    }
+
+    // Board.makeMove + isGameOver + collectRemaining on plain arrays
+    private static boolean referencePlay(int[] pits, int[] scores, int player, int pit) {
+        int seeds = pits[pit];
+        pits[pit] = 0;
+        int index = pit;
+        while (seeds > 0) {
+            index = (index + 1) % 12;
+            if (index == pit)
+                continue;
+            pits[index]++;
+            seeds--;
+        }
+        while ((player == 1 ? index >= 6 : index <= 5) && (pits[index] == 2 || pits[index] == 3)) {
+            scores[player] += pits[index];
+            pits[index] = 0;
+            index = (index - 1 + 12) % 12;
+        }
+
+        boolean side1Empty = true, side2Empty = true;
+        for (int i = 0; i < 6; i++) {
+            if (pits[i] > 0)
+                side1Empty = false;
+            if (pits[i + 6] > 0)
+                side2Empty = false;
+        }
+        if (!side1Empty && !side2Empty)
+            return false;
+        for (int i = 0; i < 6; i++) {
+            scores[1] += pits[i];
+            scores[2] += pits[i + 6];
+            pits[i] = 0;
+            pits[i + 6] = 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+package question_3;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlaySimulatorTest {
+
+    @Test
+    void mergedStatsEqualSequentialRecording() {
+        GameStats sequential = new GameStats(200);
+        GameStats[] parts = { new GameStats(200), new GameStats(200), new GameStats(200) };
+
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 3000; i++) {
+            int score1 = random.nextInt(49);
+            int score2 = 48 - score1;
+            int plies = random.nextInt(201);
+            boolean truncated = plies == 200;
+            sequential.record(score1, score2, plies, truncated);
+            parts[i % 3].record(score1, score2, plies, truncated);
+        }
+        GameStats merged = parts[0].merge(parts[1]).merge(parts[2]);
+
+        assertEquals(sequential.getGames(), merged.getGames());
+        assertEquals(sequential.getPlayer1Wins(), merged.getPlayer1Wins());
+        assertEquals(sequential.getPlayer2Wins(), merged.getPlayer2Wins());
+        assertEquals(sequential.getDraws(), merged.getDraws());
+        assertEquals(sequential.getTruncated(), merged.getTruncated());
+        assertEquals(sequential.getMinPlies(), merged.getMinPlies());
+        assertEquals(sequential.getMaxPlies(), merged.getMaxPlies());
+        assertEquals(sequential.toString(), merged.toString());
+        for (double fraction : new double[] { 0, 0.1, 0.5, 0.99, 1 })
+            assertEquals(sequential.getPliesPercentile(fraction), merged.getPliesPercentile(fraction));
+    }
+
+    @Test
+    void truncatedGamesHaveNoResult() {
+        GameStats stats = new GameStats(10);
+        stats.record(30, 18, 10, true);
+        stats.record(20, 28, 5, false);
+        stats.record(24, 24, 6, false);
+
+        assertEquals(3, stats.getGames());
+        assertEquals(1, stats.getTruncated());
+        assertEquals(0, stats.getPlayer1Wins());
+        assertEquals(1, stats.getPlayer2Wins());
+        assertEquals(1, stats.getDraws());
+    }
+
+    @Test
+    void pliesPercentileIsTheSmallestLengthCoveringTheFraction() {
+        GameStats stats = new GameStats(100);
+        // 10 games of length 1..10
+        for (int plies = 1; plies <= 10; plies++)
+            stats.record(24, 24, plies, false);
+
+        assertEquals(1, stats.getPliesPercentile(0));
+        assertEquals(1, stats.getPliesPercentile(0.1));
+        assertEquals(5, stats.getPliesPercentile(0.5));
+        assertEquals(6, stats.getPliesPercentile(0.51));
+        assertEquals(10, stats.getPliesPercentile(0.99));
+        assertEquals(10, stats.getPliesPercentile(1));
+        assertEquals(5.5, stats.getAveragePlies(), 1e-9);
+    }
+
+    @Test
+    void forkJoinRunReportsEveryGame() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // Not a multiple of the leaf size, so the split is uneven
+            long games = 10_001;
+            SelfPlaySimulator simulator = new SelfPlaySimulator(new GreedyCapturePolicy(), new RandomPolicy(),
+                    SelfPlaySimulator.DEFAULT_MAX_PLIES, pool);
+            GameStats stats = simulator.run(games);
+
+            assertEquals(games, stats.getGames());
+            assertEquals(games, stats.getPlayer1Wins() + stats.getPlayer2Wins() + stats.getDraws()
+                    + stats.getTruncated());
+            assertEquals(stats.getMaxPlies(), stats.getPliesPercentile(1));
+            // Every seed ends up with one player, truncated games included
+            assertEquals(48.0, stats.getAverageScore(1) + stats.getAverageScore(2), 1e-9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
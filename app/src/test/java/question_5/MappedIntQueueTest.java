@@ -0,0 +1,150 @@
+package question_5;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedIntQueueTest {
+    // Small segments, so a few dozen values cross several boundaries
+    private static final int SEGMENT_INTS = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void staysFifoAcrossSegments() throws IOException {
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS)) {
+            assertEquals(IntQueue.EMPTY, queue.poll());
+            for (int i = 0; i < 50; i++)
+                assertTrue(queue.offer(i));
+            assertEquals(50, queue.size());
+            for (int i = 0; i < 50; i++)
+                assertEquals(i, queue.poll());
+            assertEquals(IntQueue.EMPTY, queue.poll());
+            assertEquals(0, queue.size());
+        }
+    }
+
+    @Test
+    void reopenResumesAtTheReadCursor() throws IOException {
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS)) {
+            for (int i = 0; i < 30; i++)
+                queue.offer(i);
+            for (int i = 0; i < 11; i++)
+                assertEquals(i, queue.poll());
+        }
+
+        // The segment size stored in meta.dat wins over the one asked for
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, 1024)) {
+            assertEquals(19, queue.size());
+            queue.offer(30);
+            for (int i = 11; i <= 30; i++)
+                assertEquals(i, queue.poll());
+            assertEquals(IntQueue.EMPTY, queue.poll());
+        }
+    }
+
+    @Test
+    void consumedSegmentsAreDeleted() throws IOException {
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS)) {
+            for (int i = 0; i < 4 * SEGMENT_INTS; i++)
+                queue.offer(i);
+            assertEquals(4, segmentFiles());
+
+            // Half way into the third segment: the first two are gone
+            for (int i = 0; i < 2 * SEGMENT_INTS + SEGMENT_INTS / 2; i++)
+                queue.poll();
+            assertEquals(2, segmentFiles());
+
+            while (queue.poll() != IntQueue.EMPTY) {
+                // drain
+            }
+            assertEquals(0, segmentFiles());
+        }
+    }
+
+    @Test
+    void strayFilesAreLeftAlone() throws IOException {
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS)) {
+            for (int i = 0; i < 3 * SEGMENT_INTS; i++)
+                queue.offer(i);
+            for (int i = 0; i < 2 * SEGMENT_INTS; i++)
+                queue.poll();
+        }
+        Path foreign = Files.createFile(directory.resolve("segment-foo.dat"));
+        Path negative = Files.createFile(directory.resolve("segment--1.dat"));
+
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS)) {
+            assertEquals(SEGMENT_INTS, queue.size());
+            assertEquals(2 * SEGMENT_INTS, queue.poll());
+        }
+        assertTrue(Files.exists(foreign));
+        assertTrue(Files.exists(negative));
+    }
+
+    @Test
+    void batchesCrossSegmentBoundaries() throws IOException {
+        try (MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS)) {
+            int[] values = new int[3 * SEGMENT_INTS + 5];
+            for (int i = 0; i < values.length; i++)
+                values[i] = -i;
+            // Starts part way into the first segment
+            queue.offer(1);
+            assertEquals(values.length - 2, queue.offerAll(values, 2, values.length - 2));
+            assertEquals(values.length - 1, queue.size());
+
+            int[] drained = new int[values.length + 10];
+            assertEquals(1, queue.drainTo(drained, 0, 1));
+            assertEquals(values.length - 2, queue.drainTo(drained, 1, drained.length - 1));
+            assertEquals(1, drained[0]);
+            for (int i = 2; i < values.length; i++)
+                assertEquals(values[i], drained[i - 1]);
+            assertEquals(0, queue.drainTo(drained, 0, drained.length));
+        }
+    }
+
+    @Test
+    void closedQueueRefusesUse() throws IOException {
+        MappedIntQueue queue = MappedIntQueue.open(directory, SEGMENT_INTS);
+        queue.offer(1);
+        queue.close();
+        queue.close();
+
+        assertEquals(1, queue.size());
+        assertThrows(IllegalStateException.class, () -> queue.offer(2));
+        assertThrows(IllegalStateException.class, queue::poll);
+        assertThrows(IllegalStateException.class, queue::sync);
+    }
+
+    @Test
+    void rejectsAForeignOrCorruptMetaFile() throws IOException {
+        Path meta = directory.resolve("meta.dat");
+
+        Files.write(meta, new byte[] { 1, 2, 3, 4 });
+        assertThrows(IOException.class, () -> MappedIntQueue.open(directory, SEGMENT_INTS));
+        assertEquals(4, Files.size(meta)); // not grown by the attempt
+
+        Files.write(meta, new byte[32]);
+        assertThrows(IOException.class, () -> MappedIntQueue.open(directory, SEGMENT_INTS));
+
+        // A real queue whose read cursor has overtaken its write cursor
+        Files.delete(meta);
+        MappedIntQueue.open(directory, SEGMENT_INTS).close();
+        byte[] bytes = Files.readAllBytes(meta);
+        ByteBuffer.wrap(bytes).putLong(16, 5);
+        Files.write(meta, bytes);
+        assertThrows(IOException.class, () -> MappedIntQueue.open(directory, SEGMENT_INTS));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package question_5;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void capacityIsRoundedToPowerOfTwo() {
+        assertEquals(1, new SpscIntRingBuffer(1).capacity());
+        assertEquals(1, new MpmcIntRingBuffer(1).capacity());
+        assertEquals(1, new MpmcLongRingBuffer(1).capacity());
+        assertEquals(8, new MpmcIntRingBuffer(5).capacity());
+        assertEquals(1024, new MpmcLongRingBuffer(1024).capacity());
+    }
+
+    @Test
+    void offerFailsWhenFullAndPollWhenEmpty() {
+        IntQueue[] queues = { new SpscIntRingBuffer(4), new MpmcIntRingBuffer(4) };
+        for (IntQueue queue : queues) {
+            assertEquals(IntQueue.EMPTY, queue.poll());
+            for (int i = 0; i < 4; i++)
+                assertTrue(queue.offer(i));
+            assertFalse(queue.offer(99));
+            assertEquals(4, queue.size());
+            for (int i = 0; i < 4; i++)
+                assertEquals(i, queue.poll());
+            assertEquals(IntQueue.EMPTY, queue.poll());
+        }
+    }
+
+    @Test
+    void capacityOneHoldsExactlyOneValue() {
+        IntQueue[] queues = { new SpscIntRingBuffer(1), new MpmcIntRingBuffer(1) };
+        int[] pair = { 7, 8 };
+        int[] drained = new int[2];
+        for (IntQueue queue : queues) {
+            for (int round = 0; round < 5; round++) {
+                assertTrue(queue.offer(round));
+                assertFalse(queue.offer(99)); // must not overwrite the unread value
+                assertEquals(1, queue.size());
+                assertEquals(round, queue.poll());
+                assertEquals(IntQueue.EMPTY, queue.poll());
+            }
+            assertEquals(1, queue.offerAll(pair, 0, 2));
+            assertEquals(1, queue.drainTo(drained, 0, 2));
+            assertEquals(7, drained[0]);
+        }
+
+        MpmcLongRingBuffer longs = new MpmcLongRingBuffer(1);
+        assertTrue(longs.offer(1));
+        assertFalse(longs.offer(2));
+        assertEquals(1, longs.poll(-1));
+        assertEquals(-1, longs.poll(-1));
+    }
+
+    @Test
+    void batchesWrapAroundTheRing() {
+        IntQueue[] queues = { new SpscIntRingBuffer(8), new MpmcIntRingBuffer(8) };
+        for (IntQueue queue : queues) {
+            int[] values = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+            int[] drained = new int[10];
+            int next = 1;
+
+            // Each round moves the ring on by 9, so batches start at every slot
+            for (int round = 0; round < 20; round++) {
+                assertEquals(5, queue.offerAll(values, 0, 5));
+                assertEquals(3, queue.offerAll(values, 5, 5)); // only 3 fit
+                assertEquals(0, queue.offerAll(values, 0, 1));
+
+                assertEquals(8, queue.drainTo(drained, 1, 10));
+                assertEquals(0, queue.drainTo(drained, 0, 10));
+                for (int i = 0; i < 8; i++)
+                    assertEquals(values[i], drained[1 + i]);
+
+                queue.offer(next);
+                assertEquals(next++, queue.poll());
+            }
+        }
+    }
+
+    @Test
+    void bufferDrainWithNoRoomReturnsAtOnce() {
+        ProducerConsumer.Buffer buffer = new ProducerConsumer().new Buffer(
+                new MpmcIntRingBuffer(8), WaitStrategy.spinThenPark(100, 100, 50_000));
+        // Empty, so waiting for a value would never end
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            assertEquals(0, buffer.drainTo(new int[0], 5));
+            assertEquals(0, buffer.drainTo(new int[5], 0));
+            assertEquals(0, buffer.drainTo(new int[5], -1));
+        });
+
+        buffer.produceAll(new int[] { 1, 2, 3 });
+        assertEquals(0, buffer.drainTo(new int[0], 5));
+        int[] drained = new int[5];
+        assertEquals(3, buffer.drainTo(drained, 5));
+        assertEquals(3, drained[2]);
+    }
+
+    @Test
+    void spscPreservesOrderAcrossThreads() throws Exception {
+        SpscLongRingBuffer queue = new SpscLongRingBuffer(64);
+        long count = 1_000_000;
+
+        Thread producer = new Thread(() -> {
+            for (long i = 0; i < count; i++) {
+                while (!queue.offer(i))
+                    Thread.yield();
+            }
+        });
+        producer.start();
+
+        for (long expected = 0; expected < count; expected++) {
+            long value;
+            while ((value = queue.poll(-1)) == -1)
+                Thread.yield();
+            assertEquals(expected, value);
+        }
+        producer.join();
+    }
+
+    @Test
+    void mpmcDeliversEveryValueExactlyOnce() throws Exception {
+        deliverConcurrently(new MpmcIntRingBuffer(128), 250_000);
+    }
+
+    @Test
+    void mpmcCapacityOneDeliversEveryValueExactlyOnce() throws Exception {
+        deliverConcurrently(new MpmcIntRingBuffer(1), 20_000);
+    }
+
+    // 4 producers and 4 consumers; checks nothing is lost or delivered twice
+    private static void deliverConcurrently(IntQueue queue, int perProducer) throws Exception {
+        int producers = 4, consumers = 4;
+        AtomicLong sum = new AtomicLong();
+        AtomicLong received = new AtomicLong();
+        long total = (long) producers * perProducer;
+
+        Thread[] threads = new Thread[producers + consumers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    while (!queue.offer(i))
+                        Thread.yield();
+                }
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c] = new Thread(() -> {
+                long localSum = 0;
+                while (received.get() < total) {
+                    long value = queue.poll();
+                    if (value == IntQueue.EMPTY) {
+                        Thread.yield();
+                        continue;
+                    }
+                    localSum += value;
+                    received.incrementAndGet();
+                }
+                sum.addAndGet(localSum);
+            });
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(total, received.get());
+        assertEquals(producers * ((long) perProducer * (perProducer + 1) / 2), sum.get());
+    }
+}
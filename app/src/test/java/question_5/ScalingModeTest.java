@@ -0,0 +1,24 @@
+package question_5;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScalingModeTest {
+
+    @Test
+    void everyItemIsConsumedOnce() throws InterruptedException {
+        // Shared and partitioned, one by one and in batches, through a small
+        // ring so producers and consumers keep catching up with each other
+        for (boolean partitioned : new boolean[] { false, true }) {
+            for (int batch : new int[] { 1, 16 }) {
+                ScalingMode mode = new ScalingMode(3, 2, 5_000, partitioned, 8, batch, 64, "park");
+                ScalingMode.Result result = mode.run();
+                String label = (partitioned ? "partitioned" : "shared") + " batch=" + batch;
+                assertEquals(3 * 5_000, result.getItems(), label);
+                assertEquals(3 * 5_000, result.getLatency().getCount(), label);
+            }
+        }
+        // Single producer and consumer take the SPSC ring
+        assertEquals(5_000, new ScalingMode(1, 1, 5_000, false, 1, 4, 8, "park").run().getItems());
+    }
+}